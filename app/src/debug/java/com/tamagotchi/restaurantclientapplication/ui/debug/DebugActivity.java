@@ -0,0 +1,164 @@
+package com.tamagotchi.restaurantclientapplication.ui.debug;
+
+import android.os.Bundle;
+import android.util.Log;
+import android.widget.Button;
+import android.widget.TextView;
+
+import com.tamagotchi.restaurantclientapplication.R;
+import com.tamagotchi.restaurantclientapplication.data.network.NetworkMetrics;
+import com.tamagotchi.restaurantclientapplication.services.BootstrapService;
+import com.tamagotchi.restaurantclientapplication.services.FrameMetricsMonitor;
+import com.tamagotchi.restaurantclientapplication.ui.BaseActivity;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Экран отладки (только debug сборка): метрики сетевых запросов, время кадров по экранам
+ * и последняя трассировка запуска. Метрики можно выгрузить в logcat (теги NetworkMetrics и FrameMetrics)
+ * в том же формате, что и {@link NetworkMetrics#writeTo(Appendable)}.
+ */
+public class DebugActivity extends BaseActivity {
+
+    private static final String TAG = "DebugActivity";
+    private static final String NETWORK_METRICS_TAG = "NetworkMetrics";
+    private static final String FRAME_METRICS_TAG = "FrameMetrics";
+
+    private TextView network;
+    private TextView frames;
+    private TextView startup;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_debug);
+
+        network = findViewById(R.id.debugNetwork);
+        frames = findViewById(R.id.debugFrames);
+        startup = findViewById(R.id.debugStartup);
+
+        Button refresh = findViewById(R.id.debugRefresh);
+        refresh.setOnClickListener(view -> refresh());
+
+        Button reset = findViewById(R.id.debugReset);
+        reset.setOnClickListener(view -> {
+            NetworkMetrics.getInstance().reset();
+            FrameMetricsMonitor.getInstance().getStats().reset();
+            refresh();
+        });
+
+        Button dump = findViewById(R.id.debugDump);
+        dump.setOnClickListener(view -> {
+            for (String line : networkMetrics().split("\n")) {
+                Log.i(NETWORK_METRICS_TAG, line);
+            }
+            for (String line : frameStats().split("\n")) {
+                Log.i(FRAME_METRICS_TAG, line);
+            }
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    private void refresh() {
+        network.setText(alignColumns(networkMetrics()));
+        frames.setText(alignColumns(frameStats()));
+        startup.setText(alignColumns(startupTrace()));
+    }
+
+    private static String networkMetrics() {
+        StringBuilder metrics = new StringBuilder();
+        try {
+            NetworkMetrics.getInstance().writeTo(metrics);
+        } catch (IOException e) {
+            // StringBuilder не выбрасывает IOException.
+            throw new IllegalStateException(e);
+        }
+
+        return metrics.toString();
+    }
+
+    private static String frameStats() {
+        StringBuilder stats = new StringBuilder();
+        try {
+            FrameMetricsMonitor.getInstance().getStats().writeTo(stats);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return stats.toString();
+    }
+
+    private static String startupTrace() {
+        File file = BootstrapService.getInstance().getStartupTraceFile();
+        if (!file.exists()) {
+            return "";
+        }
+
+        StringBuilder trace = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                trace.append(line).append('\n');
+            }
+            return trace.toString();
+        } catch (IOException e) {
+            Log.e(TAG, "Can't read startup trace", e);
+            return "";
+        }
+    }
+
+    /**
+     * Выровнять колонки текста, разделенного табуляцией, для моноширинного шрифта.
+     * Строки-комментарии (начинаются с #) не участвуют в выравнивании.
+     */
+    private static String alignColumns(String tsv) {
+        List<String[]> rows = new ArrayList<>();
+        List<Integer> widths = new ArrayList<>();
+
+        for (String line : tsv.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] cells = line.startsWith("#") ? new String[]{line} : line.split("\t", -1);
+            rows.add(cells);
+            if (line.startsWith("#")) {
+                continue;
+            }
+
+            for (int i = 0; i < cells.length; i++) {
+                if (i == widths.size()) {
+                    widths.add(0);
+                }
+                widths.set(i, Math.max(widths.get(i), cells[i].length()));
+            }
+        }
+
+        StringBuilder aligned = new StringBuilder();
+        for (String[] cells : rows) {
+            for (int i = 0; i < cells.length; i++) {
+                aligned.append(cells[i]);
+                if (i < cells.length - 1) {
+                    for (int pad = cells[i].length(); pad < widths.get(i) + 2; pad++) {
+                        aligned.append(' ');
+                    }
+                }
+            }
+            aligned.append('\n');
+        }
+
+        return aligned.toString();
+    }
+}
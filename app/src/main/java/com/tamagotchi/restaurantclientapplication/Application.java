@@ -2,12 +2,18 @@ package com.tamagotchi.restaurantclientapplication;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
+import android.os.Process;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 
+import com.tamagotchi.restaurantclientapplication.data.repositories.FilesRepository;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
 import com.tamagotchi.restaurantclientapplication.services.BootstrapService;
+import com.tamagotchi.restaurantclientapplication.services.StartupTracer;
 import com.tamagotchi.restaurantclientapplication.ui.start.StartActivity;
 
+import java.util.concurrent.TimeUnit;
+
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
@@ -20,11 +26,30 @@ public class Application extends android.app.Application {
     public void onCreate() {
         super.onCreate();
 
+        // Время запуска процесса переводится в шкалу трассировки (System.nanoTime).
+        long sinceProcessStart = SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime();
+        StartupTracer.startLaunch("cold");
+        StartupTracer.markAt("process.start", System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sinceProcessStart));
+        StartupTracer.begin("application.create");
+
         mApp = this;
         mPrefs = PreferenceManager.getDefaultSharedPreferences(this);
         BootstrapService.getInstance().InitializeApplication();
 
         InitLogoutHandler();
+
+        StartupTracer.end("application.create");
+    }
+
+    @Override
+    public void onLowMemory() {
+        super.onLowMemory();
+
+        // Изображения можно будет заново прочитать из дискового кэша.
+        // Если репозиторий еще не создан, то и освобождать нечего.
+        if (FilesRepository.isCreated()) {
+            FilesRepository.getInstance().trimMemory();
+        }
     }
 
     public static Application get() {
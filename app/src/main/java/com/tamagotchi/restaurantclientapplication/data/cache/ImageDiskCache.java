@@ -0,0 +1,152 @@
+package com.tamagotchi.restaurantclientapplication.data.cache;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Дисковый кэш файлов изображений, ключом является id файла на сервере.
+ * Хранит исходные (не декодированные) файлы, поэтому после холодного старта
+ * изображения берутся с диска без обращения к серверу.
+ * Размер кэша ограничен, при переполнении удаляются давно не использованные файлы.
+ */
+public class ImageDiskCache {
+    private static final String TAG = "ImageDiskCache";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final File directory;
+    private final long maxSizeBytes;
+
+    /**
+     * Текущий размер кэша, -1 - еще не подсчитан.
+     */
+    private long size = -1;
+
+    /**
+     * Создает дисковый кэш.
+     * @param directory директория для хранения файлов.
+     * @param maxSizeBytes максимальный размер кэша в байтах.
+     */
+    public ImageDiskCache(File directory, long maxSizeBytes) {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Получить файл изображения из кэша.
+     * @param id id файла на сервере.
+     * @return файл или null, если изображения нет в кэше.
+     */
+    public synchronized File get(int id) {
+        File file = getFile(id);
+        if (!file.exists()) {
+            return null;
+        }
+
+        // Отмечаем использование файла для вытеснения по LRU.
+        file.setLastModified(System.currentTimeMillis());
+        return file;
+    }
+
+    /**
+     * Сохранить изображение в кэш.
+     * Данные сначала пишутся во временный файл, поэтому прерванная загрузка не оставит в кэше битый файл.
+     * @param id id файла на сервере.
+     * @param source поток с содержимым файла, закрывается после записи.
+     * @return сохраненный файл.
+     * @throws IOException ошибка записи или чтения потока.
+     */
+    public File put(int id, InputStream source) throws IOException {
+        File temp = new File(directory, id + TEMP_SUFFIX);
+
+        try (InputStream input = source; OutputStream output = openOutput(temp)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        synchronized (this) {
+            File file = getFile(id);
+            long previousLength = file.length();
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                throw new IOException("Can't move image " + id + " to cache");
+            }
+
+            if (size >= 0) {
+                size += file.length() - previousLength;
+            }
+
+            trimToSize();
+            return file;
+        }
+    }
+
+    /**
+     * Удалить изображение из кэша (например если файл не удалось декодировать).
+     * @param id id файла на сервере.
+     */
+    public synchronized void remove(int id) {
+        File file = getFile(id);
+        long length = file.length();
+        if (file.delete() && size >= 0) {
+            size -= length;
+        }
+    }
+
+    private File getFile(int id) {
+        return new File(directory, String.valueOf(id));
+    }
+
+    private OutputStream openOutput(File file) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Can't create cache directory " + directory);
+        }
+
+        return new FileOutputStream(file);
+    }
+
+    private void trimToSize() {
+        File[] files = directory.listFiles((dir, name) -> !name.endsWith(TEMP_SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        if (size < 0) {
+            size = 0;
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+
+        if (size <= maxSizeBytes) {
+            return;
+        }
+
+        // Удаляем самые старые файлы, пока не уложимся в лимит.
+        Arrays.sort(files, (first, second) -> Long.compare(first.lastModified(), second.lastModified()));
+        for (File file : files) {
+            if (size <= maxSizeBytes) {
+                break;
+            }
+
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+            } else {
+                Log.w(TAG, "Can't delete cached image " + file.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.tamagotchi.restaurantclientapplication.data.cache;
+
+/**
+ * Ключ кэша изображений: id файла и размер, под который изображение было декодировано.
+ * Благодаря этому миниатюра не удерживает в памяти изображение полного размера.
+ */
+public final class ImageKey {
+
+    /**
+     * Размер, означающий декодирование в исходном разрешении.
+     */
+    public static final int ORIGINAL_SIZE = 0;
+
+    private final int id;
+    private final int width;
+    private final int height;
+
+    /**
+     * Создает ключ изображения.
+     * @param id id файла на сервере.
+     * @param width требуемая ширина в пикселях или ORIGINAL_SIZE.
+     * @param height требуемая высота в пикселях или ORIGINAL_SIZE.
+     */
+    public ImageKey(int id, int width, int height) {
+        this.id = id;
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof ImageKey)) {
+            return false;
+        }
+
+        ImageKey other = (ImageKey) o;
+        return id == other.id && width == other.width && height == other.height;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = id;
+        result = 31 * result + width;
+        result = 31 * result + height;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return id + "[" + width + "x" + height + "]";
+    }
+}
@@ -0,0 +1,53 @@
+package com.tamagotchi.restaurantclientapplication.data.cache;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+/**
+ * Кэш декодированных изображений в памяти.
+ * Размер кэша ограничивается объемом занимаемой памяти (в байтах), а не количеством элементов.
+ * При переполнении вытесняются давно не использованные изображения (LRU).
+ * Одно изображение может храниться в нескольких размерах, см. {@link ImageKey}.
+ */
+public class ImageMemoryCache {
+
+    private final LruCache<ImageKey, Bitmap> cache;
+
+    /**
+     * Создает кэш заданного размера.
+     * @param maxSizeBytes максимальный объем памяти под изображения в байтах.
+     */
+    public ImageMemoryCache(int maxSizeBytes) {
+        cache = new LruCache<ImageKey, Bitmap>(maxSizeBytes) {
+            @Override
+            protected int sizeOf(ImageKey key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Создает кэш, занимающий долю от доступной приложению памяти.
+     * @param memoryFraction делитель доступной памяти (например 8 - восьмая часть heap).
+     * @return кэш изображений.
+     */
+    public static ImageMemoryCache createForHeapFraction(int memoryFraction) {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        return new ImageMemoryCache((int) Math.min(Integer.MAX_VALUE, maxMemory / memoryFraction));
+    }
+
+    public Bitmap get(ImageKey key) {
+        return cache.get(key);
+    }
+
+    public void put(ImageKey key, Bitmap image) {
+        cache.put(key, image);
+    }
+
+    /**
+     * Очистить кэш (например при нехватке памяти).
+     */
+    public void clear() {
+        cache.evictAll();
+    }
+}
@@ -0,0 +1,19 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.room.Database;
+import androidx.room.RoomDatabase;
+
+/**
+ * Локальная база данных приложения.
+ * Используется как кэш данных сервера, поэтому при смене версии схема пересоздается.
+ */
+@Database(entities = {DishEntity.class, RestaurantEntity.class, OrderEntity.class}, version = 3, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+    public static final String DATABASE_NAME = "tamagotchi.db";
+
+    public abstract DishDao dishDao();
+
+    public abstract RestaurantDao restaurantDao();
+
+    public abstract OrderDao orderDao();
+}
@@ -0,0 +1,20 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface DishDao {
+    @Query("SELECT * FROM dishes WHERE id = :id")
+    DishEntity getById(int id);
+
+    @Query("SELECT * FROM dishes WHERE id IN (:ids)")
+    List<DishEntity> getByIds(List<Integer> ids);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<DishEntity> dishes);
+}
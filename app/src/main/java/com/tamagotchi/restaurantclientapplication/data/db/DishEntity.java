@@ -0,0 +1,53 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.Gson;
+import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
+
+/**
+ * Блюдо, сохраненное в локальной базе.
+ * Модель сервера хранится в json, чтобы схема не зависела от полей протокола.
+ */
+@Entity(tableName = "dishes")
+public class DishEntity {
+    @PrimaryKey
+    private int id;
+
+    @NonNull
+    private String json;
+
+    /**
+     * Время получения блюда с сервера (мс).
+     */
+    private long updatedAt;
+
+    public DishEntity(int id, @NonNull String json, long updatedAt) {
+        this.id = id;
+        this.json = json;
+        this.updatedAt = updatedAt;
+    }
+
+    public static DishEntity fromModel(DishModel dish, Gson gson, long updatedAt) {
+        return new DishEntity(dish.getId(), gson.toJson(dish), updatedAt);
+    }
+
+    public DishModel toModel(Gson gson) {
+        return gson.fromJson(json, DishModel.class);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    @NonNull
+    public String getJson() {
+        return json;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class OrderDao {
+    @Query("SELECT * FROM orders WHERE userId = :userId ORDER BY position")
+    public abstract List<OrderEntity> getByUser(int userId);
+
+    @Query("DELETE FROM orders WHERE userId = :userId")
+    abstract void deleteByUser(int userId);
+
+    @Insert
+    abstract void insertAll(List<OrderEntity> orders);
+
+    /**
+     * Заменить сохраненные заказы пользователя новыми.
+     * @param userId id пользователя.
+     * @param orders новые заказы пользователя.
+     */
+    @Transaction
+    public void replaceByUser(int userId, List<OrderEntity> orders) {
+        deleteByUser(userId);
+        insertAll(orders);
+    }
+}
@@ -0,0 +1,61 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.Gson;
+import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
+
+/**
+ * Заказ пользователя из последней синхронизации заказов.
+ * Модель сервера хранится в json, чтобы схема не зависела от полей протокола.
+ */
+@Entity(tableName = "orders", indices = {@Index(value = {"userId", "position"})})
+public class OrderEntity {
+    @PrimaryKey
+    private int id;
+
+    private int userId;
+
+    /**
+     * Позиция заказа в списке, полученном с сервера.
+     */
+    private int position;
+
+    @NonNull
+    private String json;
+
+    public OrderEntity(int id, int userId, int position, @NonNull String json) {
+        this.id = id;
+        this.userId = userId;
+        this.position = position;
+        this.json = json;
+    }
+
+    public static OrderEntity fromModel(OrderModel order, int userId, int position, Gson gson) {
+        return new OrderEntity(order.getId(), userId, position, gson.toJson(order));
+    }
+
+    public OrderModel toModel(Gson gson) {
+        return gson.fromJson(json, OrderModel.class);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    @NonNull
+    public String getJson() {
+        return json;
+    }
+}
@@ -0,0 +1,30 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+@Dao
+public abstract class RestaurantDao {
+    @Query("SELECT * FROM restaurants ORDER BY position")
+    public abstract List<RestaurantEntity> getAll();
+
+    @Query("DELETE FROM restaurants")
+    abstract void deleteAll();
+
+    @Insert
+    abstract void insertAll(List<RestaurantEntity> restaurants);
+
+    /**
+     * Заменить сохраненный список ресторанов новым.
+     * @param restaurants новый список ресторанов.
+     */
+    @Transaction
+    public void replaceAll(List<RestaurantEntity> restaurants) {
+        deleteAll();
+        insertAll(restaurants);
+    }
+}
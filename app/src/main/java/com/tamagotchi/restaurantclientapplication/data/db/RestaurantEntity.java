@@ -0,0 +1,53 @@
+package com.tamagotchi.restaurantclientapplication.data.db;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.Gson;
+import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
+
+/**
+ * Ресторан из последнего полученного списка ресторанов.
+ * Модель сервера хранится в json, чтобы схема не зависела от полей протокола.
+ */
+@Entity(tableName = "restaurants")
+public class RestaurantEntity {
+    @PrimaryKey
+    private int id;
+
+    /**
+     * Позиция ресторана в списке, полученном с сервера.
+     */
+    private int position;
+
+    @NonNull
+    private String json;
+
+    public RestaurantEntity(int id, int position, @NonNull String json) {
+        this.id = id;
+        this.position = position;
+        this.json = json;
+    }
+
+    public static RestaurantEntity fromModel(RestaurantModel restaurant, int position, Gson gson) {
+        return new RestaurantEntity(restaurant.getId(), position, gson.toJson(restaurant));
+    }
+
+    public RestaurantModel toModel(Gson gson) {
+        return gson.fromJson(json, RestaurantModel.class);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    @NonNull
+    public String getJson() {
+        return json;
+    }
+}
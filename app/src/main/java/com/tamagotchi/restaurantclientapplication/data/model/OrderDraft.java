@@ -0,0 +1,263 @@
+package com.tamagotchi.restaurantclientapplication.data.model;
+
+import com.google.gson.Gson;
+import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Черновик заказа пользователя: выбранный ресторан, его меню, корзина и информация о посещении.
+ * Неизменяемый снимок состояния главного экрана, который сохраняется между запусками процесса.
+ * Модели сервера хранятся в json, чтобы формат не зависел от полей протокола.
+ */
+public class OrderDraft {
+
+    /**
+     * Версия формата, черновики другой версии не читаются.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    /**
+     * Максимальный размер json одной модели, больший размер считается повреждением файла.
+     */
+    private static final int MAX_JSON_BYTES = 1 << 20;
+
+    private final long savedAt;
+    private final int userId;
+    private final RestaurantModel restaurant;
+    private final List<FullMenuItem> menu;
+    private final Map<Integer, Integer> cart;
+    private final long visitTime;
+    private final int numberOfVisitors;
+
+    /**
+     * Конструктор класса.
+     * Меню и корзина не копируются: меню не изменяется после загрузки, а корзина собирается для черновика.
+     * @param savedAt время создания черновика (мс).
+     * @param userId id пользователя, которому принадлежит черновик.
+     * @param restaurant выбранный ресторан.
+     * @param menu меню ресторана.
+     * @param cart количество по id элемента меню, в порядке добавления в корзину.
+     * @param visitTime время посещения (мс).
+     * @param numberOfVisitors количество посетителей.
+     */
+    public OrderDraft(long savedAt, int userId, RestaurantModel restaurant, List<FullMenuItem> menu,
+                      Map<Integer, Integer> cart, long visitTime, int numberOfVisitors) {
+        this.savedAt = savedAt;
+        this.userId = userId;
+        this.restaurant = restaurant;
+        this.menu = Collections.unmodifiableList(menu);
+        this.cart = Collections.unmodifiableMap(cart);
+        this.visitTime = visitTime;
+        this.numberOfVisitors = numberOfVisitors;
+    }
+
+    /**
+     * Создать черновик из текущего состояния.
+     * @param userId id пользователя, которому принадлежит черновик.
+     * @param restaurant выбранный ресторан.
+     * @param menu меню ресторана.
+     * @param cart снимок корзины.
+     * @param visitInfo информация о посещении.
+     * @return черновик.
+     */
+    public static OrderDraft of(int userId, RestaurantModel restaurant, List<FullMenuItem> menu,
+                                UserCart.Snapshot cart, OrderVisitInfo visitInfo) {
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        for (UserCart.Line line : cart.getLines()) {
+            quantities.put(line.getMenuItem().getId(), line.getQuantity());
+        }
+
+        return new OrderDraft(System.currentTimeMillis(), userId, restaurant, menu, quantities,
+                visitInfo.getVisitTime().getTimeInMillis(), visitInfo.getNumberOfVisitors());
+    }
+
+    public long getSavedAt() {
+        return savedAt;
+    }
+
+    /**
+     * Id пользователя, которому принадлежит черновик.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    public RestaurantModel getRestaurant() {
+        return restaurant;
+    }
+
+    public List<FullMenuItem> getMenu() {
+        return menu;
+    }
+
+    /**
+     * Количество по id элемента меню, в порядке добавления в корзину.
+     */
+    public Map<Integer, Integer> getCart() {
+        return cart;
+    }
+
+    public long getVisitTime() {
+        return visitTime;
+    }
+
+    public int getNumberOfVisitors() {
+        return numberOfVisitors;
+    }
+
+    /**
+     * Собрать корзину по меню черновика. Элементы, которых нет в меню, пропускаются.
+     * @return корзина.
+     */
+    public UserCart restoreCart() {
+        Map<Integer, FullMenuItem> menuById = new HashMap<>();
+        for (FullMenuItem menuItem : menu) {
+            menuById.put(menuItem.getId(), menuItem);
+        }
+
+        UserCart userCart = new UserCart();
+        for (Map.Entry<Integer, Integer> line : cart.entrySet()) {
+            FullMenuItem menuItem = menuById.get(line.getKey());
+            if (menuItem == null) {
+                continue;
+            }
+
+            for (int i = 0; i < line.getValue(); i++) {
+                userCart.add(menuItem);
+            }
+        }
+
+        return userCart;
+    }
+
+    /**
+     * Записать черновик в двоичном виде.
+     * Блюда, которые повторяются в меню, записываются один раз.
+     * @param out поток для записи.
+     * @param gson сериализатор моделей сервера.
+     * @throws IOException ошибка записи.
+     */
+    public void writeTo(DataOutputStream out, Gson gson) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(savedAt);
+        out.writeInt(userId);
+        writeString(out, gson.toJson(restaurant));
+        out.writeLong(visitTime);
+        out.writeInt(numberOfVisitors);
+
+        // Элементы меню одного блюда ссылаются на один экземпляр модели (см. MenuAssembler).
+        Map<DishModel, Integer> dishIndexes = new IdentityHashMap<>();
+        List<DishModel> dishes = new ArrayList<>();
+        for (FullMenuItem menuItem : menu) {
+            if (!dishIndexes.containsKey(menuItem.getDish())) {
+                dishIndexes.put(menuItem.getDish(), dishes.size());
+                dishes.add(menuItem.getDish());
+            }
+        }
+
+        out.writeInt(dishes.size());
+        for (DishModel dish : dishes) {
+            writeString(out, gson.toJson(dish));
+        }
+
+        out.writeInt(menu.size());
+        for (FullMenuItem menuItem : menu) {
+            out.writeInt(menuItem.getId());
+            out.writeInt(menuItem.getPrice());
+            out.writeBoolean(menuItem.isDeleted());
+            out.writeInt(dishIndexes.get(menuItem.getDish()));
+        }
+
+        out.writeInt(cart.size());
+        for (Map.Entry<Integer, Integer> line : cart.entrySet()) {
+            out.writeInt(line.getKey());
+            out.writeInt(line.getValue());
+        }
+    }
+
+    /**
+     * Прочитать черновик, записанный {@link #writeTo(DataOutputStream, Gson)}.
+     * @param in поток для чтения.
+     * @param gson сериализатор моделей сервера.
+     * @return черновик.
+     * @throws IOException ошибка чтения, неизвестная версия или поврежденные данные.
+     */
+    public static OrderDraft readFrom(DataInputStream in, Gson gson) throws IOException {
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported draft version " + version);
+        }
+
+        long savedAt = in.readLong();
+        int userId = in.readInt();
+        RestaurantModel restaurant = gson.fromJson(readString(in), RestaurantModel.class);
+        long visitTime = in.readLong();
+        int numberOfVisitors = in.readInt();
+
+        int dishCount = readCount(in);
+        List<DishModel> dishes = new ArrayList<>();
+        for (int i = 0; i < dishCount; i++) {
+            dishes.add(gson.fromJson(readString(in), DishModel.class));
+        }
+
+        int menuSize = readCount(in);
+        List<FullMenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < menuSize; i++) {
+            int id = in.readInt();
+            int price = in.readInt();
+            boolean isDeleted = in.readBoolean();
+            int dishIndex = in.readInt();
+            if (dishIndex < 0 || dishIndex >= dishes.size()) {
+                throw new IOException("Invalid dish index " + dishIndex);
+            }
+            menu.add(new FullMenuItem(id, price, isDeleted, dishes.get(dishIndex)));
+        }
+
+        int cartSize = readCount(in);
+        Map<Integer, Integer> cart = new LinkedHashMap<>();
+        for (int i = 0; i < cartSize; i++) {
+            cart.put(in.readInt(), in.readInt());
+        }
+
+        return new OrderDraft(savedAt, userId, restaurant, menu, cart, visitTime, numberOfVisitors);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // writeUTF ограничен 64 КБ, описание блюда может быть длиннее.
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readCount(in);
+        if (length > MAX_JSON_BYTES) {
+            throw new IOException("Invalid length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid length " + count);
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,47 @@
+package com.tamagotchi.restaurantclientapplication.data.model;
+
+import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Результат синхронизации заказов пользователя.
+ */
+public class OrdersUpdate {
+    private final List<OrderModel> orders;
+    private final Set<Integer> changedIds;
+    private final boolean isStructureChanged;
+
+    public OrdersUpdate(List<OrderModel> orders, Set<Integer> changedIds, boolean isStructureChanged) {
+        this.orders = Collections.unmodifiableList(orders);
+        this.changedIds = Collections.unmodifiableSet(changedIds);
+        this.isStructureChanged = isStructureChanged;
+    }
+
+    /**
+     * Все заказы пользователя после синхронизации.
+     */
+    public List<OrderModel> getOrders() {
+        return orders;
+    }
+
+    /**
+     * Id заказов, содержимое которых изменилось (например, статус).
+     */
+    public Set<Integer> getChangedIds() {
+        return changedIds;
+    }
+
+    /**
+     * Изменился ли состав или порядок заказов. Если нет, то достаточно обновить только измененные заказы.
+     */
+    public boolean isStructureChanged() {
+        return isStructureChanged;
+    }
+
+    public boolean isEmpty() {
+        return !isStructureChanged && changedIds.isEmpty();
+    }
+}
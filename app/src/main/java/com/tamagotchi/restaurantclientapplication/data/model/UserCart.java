@@ -0,0 +1,178 @@
+package com.tamagotchi.restaurantclientapplication.data.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Корзина пользователя: выбранные элементы меню с количеством.
+ * Количество и сумма хранятся по id элемента меню и пересчитываются при каждом изменении,
+ * поэтому добавление, удаление и получение количества не зависят от размера корзины.
+ * Неизменяемый снимок всей корзины (см. {@link Snapshot}) создается только по запросу
+ * и переиспользуется до следующего изменения.
+ */
+public class UserCart {
+
+    /**
+     * Строка корзины: элемент меню и его количество.
+     */
+    public static class Line {
+        private final FullMenuItem menuItem;
+        private final int quantity;
+
+        Line(FullMenuItem menuItem, int quantity) {
+            this.menuItem = menuItem;
+            this.quantity = quantity;
+        }
+
+        public FullMenuItem getMenuItem() {
+            return menuItem;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+
+    /**
+     * Неизменяемый снимок корзины.
+     */
+    public static class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), 0, 0);
+
+        private final Map<Integer, Line> lines;
+        private final int totalQuantity;
+        private final int totalPrice;
+
+        private Snapshot(Map<Integer, Line> lines, int totalQuantity, int totalPrice) {
+            this.lines = lines;
+            this.totalQuantity = totalQuantity;
+            this.totalPrice = totalPrice;
+        }
+
+        /**
+         * Количество элемента меню в корзине.
+         * @param menuItemId id элемента меню.
+         * @return количество, 0 если элемента нет в корзине.
+         */
+        public int getQuantity(int menuItemId) {
+            Line line = lines.get(menuItemId);
+            return line != null ? line.getQuantity() : 0;
+        }
+
+        /**
+         * Строки корзины в порядке добавления элементов.
+         */
+        public List<Line> getLines() {
+            return Collections.unmodifiableList(new ArrayList<>(lines.values()));
+        }
+
+        /**
+         * Id элементов меню для заказа, каждый id повторяется по количеству элемента.
+         */
+        public List<Integer> getMenuItemIds() {
+            List<Integer> ids = new ArrayList<>(totalQuantity);
+            for (Line line : lines.values()) {
+                for (int i = 0; i < line.getQuantity(); i++) {
+                    ids.add(line.getMenuItem().getId());
+                }
+            }
+
+            return ids;
+        }
+
+        public int getTotalQuantity() {
+            return totalQuantity;
+        }
+
+        public int getTotalPrice() {
+            return totalPrice;
+        }
+
+        public boolean isEmpty() {
+            return totalQuantity == 0;
+        }
+    }
+
+    private final LinkedHashMap<Integer, Line> lines = new LinkedHashMap<>();
+    private int totalQuantity = 0;
+    private int totalPrice = 0;
+
+    /**
+     * Снимок текущего состояния, null если корзина изменилась после создания последнего снимка.
+     */
+    private Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Добавить элемент меню в корзину.
+     * @param menuItem элемент меню.
+     */
+    public void add(FullMenuItem menuItem) {
+        Line line = lines.get(menuItem.getId());
+        int quantity = line != null ? line.getQuantity() : 0;
+
+        lines.put(menuItem.getId(), new Line(menuItem, quantity + 1));
+        totalQuantity += 1;
+        totalPrice += menuItem.getPrice();
+        snapshot = null;
+    }
+
+    /**
+     * Удалить один экземпляр элемента меню из корзины.
+     * @param menuItem элемент меню.
+     * @return true, если элемент был в корзине.
+     */
+    public boolean remove(FullMenuItem menuItem) {
+        Line line = lines.get(menuItem.getId());
+        if (line == null) {
+            return false;
+        }
+
+        if (line.getQuantity() == 1) {
+            lines.remove(menuItem.getId());
+        } else {
+            lines.put(menuItem.getId(), new Line(line.getMenuItem(), line.getQuantity() - 1));
+        }
+
+        totalQuantity -= 1;
+        totalPrice -= line.getMenuItem().getPrice();
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * Очистить корзину.
+     */
+    public void clear() {
+        lines.clear();
+        totalQuantity = 0;
+        totalPrice = 0;
+        snapshot = Snapshot.EMPTY;
+    }
+
+    /**
+     * Количество элемента меню в корзине.
+     * @param menuItemId id элемента меню.
+     * @return количество, 0 если элемента нет в корзине.
+     */
+    public int getQuantity(int menuItemId) {
+        Line line = lines.get(menuItemId);
+        return line != null ? line.getQuantity() : 0;
+    }
+
+    /**
+     * Получить неизменяемый снимок текущего состояния корзины.
+     * Снимок создается только при первом запросе после изменения корзины, при этом копируются
+     * только строки корзины (по одной на элемент меню), а не каждый добавленный экземпляр.
+     * @return снимок корзины.
+     */
+    public Snapshot snapshot() {
+        if (snapshot == null) {
+            snapshot = new Snapshot(new LinkedHashMap<>(lines), totalQuantity, totalPrice);
+        }
+
+        return snapshot;
+    }
+}
@@ -0,0 +1,40 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Добавляет jwt текущего пользователя в заголовок Authorization.
+ */
+public class AuthorizationInterceptor implements Interceptor {
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String AUTHORIZATION_SCHEME = "Bearer ";
+
+    /**
+     * Источник jwt, пустая строка если пользователь не авторизован.
+     */
+    private final Supplier<String> tokenSource;
+
+    public AuthorizationInterceptor(Supplier<String> tokenSource) {
+        this.tokenSource = tokenSource;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String token = tokenSource.get();
+
+        if (token == null || token.isEmpty() || request.header(AUTHORIZATION_HEADER) != null) {
+            return chain.proceed(request);
+        }
+
+        return chain.proceed(request.newBuilder()
+                .header(AUTHORIZATION_HEADER, AUTHORIZATION_SCHEME + token)
+                .build());
+    }
+}
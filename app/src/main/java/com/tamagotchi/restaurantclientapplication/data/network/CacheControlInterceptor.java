@@ -0,0 +1,63 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Сетевой interceptor, задающий политику HTTP кэша для ответов, которые сервер не размечает сам.
+ * Файлы неизменяемы (новый файл получает новый id), поэтому хранятся долго без перепроверки.
+ * Каталог (рестораны, меню, блюда) и заказы сохраняются, но перед каждым использованием
+ * перепроверяются через If-None-Match, поэтому неизмененные данные приходят ответом 304 без тела.
+ * Заказы так перепроверяются при каждом опросе синхронизации.
+ */
+public class CacheControlInterceptor implements Interceptor {
+
+    private static final String CACHE_CONTROL_HEADER = "Cache-Control";
+    private static final String PRAGMA_HEADER = "Pragma";
+
+    private static final String FILES_PATH = "/files/";
+    private static final String[] REVALIDATED_PATHS = {"/restaurants", "/menu", "/dishes", "/orders"};
+
+    private static final long FILES_MAX_AGE_SECONDS = TimeUnit.DAYS.toSeconds(30);
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!request.method().equals("GET") || !response.isSuccessful()
+                || response.header(CACHE_CONTROL_HEADER) != null) {
+            return response;
+        }
+
+        String path = request.url().encodedPath();
+        String cacheControl;
+
+        if (path.contains(FILES_PATH)) {
+            cacheControl = "public, max-age=" + FILES_MAX_AGE_SECONDS;
+        } else if (isRevalidated(path) && response.header("ETag") != null) {
+            cacheControl = "no-cache";
+        } else {
+            return response;
+        }
+
+        return response.newBuilder()
+                .removeHeader(PRAGMA_HEADER)
+                .header(CACHE_CONTROL_HEADER, cacheControl)
+                .build();
+    }
+
+    private static boolean isRevalidated(String path) {
+        for (String revalidatedPath : REVALIDATED_PATHS) {
+            if (path.contains(revalidatedPath)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
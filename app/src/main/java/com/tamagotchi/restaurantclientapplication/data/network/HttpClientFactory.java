@@ -0,0 +1,77 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import com.google.gson.Gson;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava3.RxJava3CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Создание общего HTTP клиента приложения.
+ * Все запросы к серверу через один клиент используют общий HTTP кэш и общий пул соединений.
+ */
+public class HttpClientFactory {
+
+    /**
+     * Максимальное количество простаивающих соединений в пуле.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final long KEEP_ALIVE_MINUTES = 2;
+
+    private static final long TIMEOUT_SECONDS = 15;
+
+    private HttpClientFactory() {
+    }
+
+    /**
+     * Создать HTTP клиент.
+     * @param cacheDirectory директория HTTP кэша.
+     * @param cacheSize максимальный размер HTTP кэша в байтах.
+     * @param tokenSource источник jwt текущего пользователя.
+     * @param metrics куда записываются метрики запросов.
+     * @return HTTP клиент.
+     */
+    public static OkHttpClient createClient(File cacheDirectory, long cacheSize, Supplier<String> tokenSource,
+                                            NetworkMetrics metrics) {
+        return new OkHttpClient.Builder()
+                .cache(new Cache(cacheDirectory, cacheSize))
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                // HTTP/2 позволяет выполнять параллельные запросы (например, фотографии меню) в одном соединении.
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .addInterceptor(new MetricsInterceptor(metrics))
+                .addInterceptor(new AuthorizationInterceptor(tokenSource))
+                .addNetworkInterceptor(new CacheControlInterceptor())
+                .build();
+    }
+
+    /**
+     * Создать Retrofit поверх общего HTTP клиента.
+     * Используется Gson с настройками по умолчанию: модели протокола - простые классы с именами полей,
+     * как в json сервера, время в них передается строками (разбирается через Iso8601),
+     * поэтому собственные адаптеры не нужны. Так же, обычным Gson, приложение разбирает ErrorResponse
+     * из тел ошибок и хранит модели в локальной базе. Если в протоколе появятся поля, требующие
+     * адаптеров, их нужно зарегистрировать и здесь.
+     * @param client HTTP клиент.
+     * @param serverUrl адрес сервера.
+     * @return Retrofit для создания api сервисов.
+     */
+    public static Retrofit createRetrofit(OkHttpClient client, String serverUrl) {
+        return new Retrofit.Builder()
+                .baseUrl(serverUrl)
+                .client(client)
+                .addConverterFactory(GsonConverterFactory.create(new Gson()))
+                .addCallAdapterFactory(RxJava3CallAdapterFactory.create())
+                .build();
+    }
+}
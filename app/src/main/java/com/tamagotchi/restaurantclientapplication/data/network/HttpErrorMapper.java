@@ -0,0 +1,80 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
+import com.tamagotchi.restaurantclientapplication.data.exceptions.BadRequestException;
+import com.tamagotchi.restaurantclientapplication.data.exceptions.ConflictException;
+import com.tamagotchi.restaurantclientapplication.data.exceptions.NotFoundException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.CompletableTransformer;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleTransformer;
+import retrofit2.HttpException;
+
+/**
+ * Преобразование ошибок HTTP запросов в исключения приложения.
+ * Используется через compose и не меняет потоки выполнения: планировщики выбирает вызывающий код.
+ * Отписка от результата отменяет HTTP запрос, т.к. промежуточной подписки нет.
+ */
+public class HttpErrorMapper {
+
+    /**
+     * Преобразование кодов ответа, общее для всех запросов.
+     */
+    public static final HttpErrorMapper DEFAULT = new HttpErrorMapper(new HashMap<>())
+            .on(400, BadRequestException::new)
+            .on(401, AuthPasswordException::new)
+            .on(404, NotFoundException::new)
+            .on(409, ConflictException::new);
+
+    private final Map<Integer, Supplier<? extends Exception>> exceptions;
+
+    private HttpErrorMapper(Map<Integer, Supplier<? extends Exception>> exceptions) {
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * Создать преобразование с дополнительным или переопределенным кодом ответа.
+     * @param code код HTTP ответа.
+     * @param exception создание исключения для этого кода.
+     * @return новое преобразование, текущее не изменяется.
+     */
+    public HttpErrorMapper on(int code, Supplier<? extends Exception> exception) {
+        Map<Integer, Supplier<? extends Exception>> mapped = new HashMap<>(exceptions);
+        mapped.put(code, exception);
+        return new HttpErrorMapper(mapped);
+    }
+
+    public <T> SingleTransformer<T, T> single() {
+        return upstream -> upstream.onErrorResumeNext(error -> Single.error(map(error)));
+    }
+
+    public CompletableTransformer completable() {
+        return upstream -> upstream.onErrorResumeNext(error -> Completable.error(map(error)));
+    }
+
+    /**
+     * Преобразовать ошибку запроса.
+     * @param error исходная ошибка.
+     * @return исключение приложения для известного кода ответа, иначе исходное исключение.
+     * Ошибки, которые не являются Exception, оборачиваются в Exception.
+     */
+    public Exception map(Throwable error) {
+        if (error instanceof HttpException) {
+            Supplier<? extends Exception> exception = exceptions.get(((HttpException) error).code());
+            if (exception != null) {
+                return exception.get();
+            }
+        }
+
+        if (error instanceof Exception) {
+            return (Exception) error;
+        }
+
+        return new Exception(error);
+    }
+}
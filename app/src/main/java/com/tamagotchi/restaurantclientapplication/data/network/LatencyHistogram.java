@@ -0,0 +1,113 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import java.util.Arrays;
+
+/**
+ * Гистограмма задержек с лог-линейными интервалами (как в HdrHistogram).
+ * Каждая степень двойки делится на {@link #SUB_BUCKETS} равных интервалов,
+ * поэтому относительная погрешность перцентилей не превышает 1/{@link #SUB_BUCKETS} при постоянном размере памяти.
+ * Значения записываются в микросекундах. Класс не потокобезопасен.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * Количество интервалов на степень двойки.
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Максимальное различимое значение (около 19 минут), большие значения попадают в последний интервал.
+     */
+    static final long MAX_VALUE = (1L << 30) - 1;
+
+    private static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount = 0;
+    private long totalSum = 0;
+    private long max = 0;
+
+    /**
+     * Записать значение.
+     * @param value значение в микросекундах, отрицательные значения считаются нулем.
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        counts[bucketIndex(clamped)]++;
+        totalCount++;
+        totalSum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Среднее значение, 0 если значений нет.
+     */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) totalSum / totalCount;
+    }
+
+    /**
+     * Получить перцентиль.
+     * Возвращается верхняя граница интервала, в который попал перцентиль, но не больше максимума.
+     * @param percentile перцентиль от 0 до 100.
+     * @return значение в микросекундах, 0 если значений нет.
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Сбросить все значения.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        totalSum = 0;
+        max = 0;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
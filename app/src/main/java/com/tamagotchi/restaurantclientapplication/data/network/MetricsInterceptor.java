@@ -0,0 +1,83 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Interceptor, записывающий метрики запросов в {@link NetworkMetrics}.
+ * Добавляется первым interceptor приложения, поэтому задержка включает авторизацию,
+ * HTTP кэш и повторные попытки OkHttp. Задержка измеряется до получения заголовков ответа,
+ * тело ответа читается позже вызывающей стороной.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    private static final String CONTENT_LENGTH_HEADER = "Content-Length";
+
+    private final NetworkMetrics metrics;
+
+    public MetricsInterceptor(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String method = request.method();
+        String path = request.url().encodedPath();
+        long bytesSent = requestBodyLength(request.body());
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.record(method, path, elapsedMicros(start), bytesSent, 0, false, NetworkMetrics.IO_ERROR);
+            throw e;
+        }
+        long latency = elapsedMicros(start);
+
+        Response networkResponse = response.networkResponse();
+        boolean isCached = networkResponse == null;
+        String error = response.isSuccessful() ? null : Integer.toString(response.code());
+
+        metrics.record(method, path, latency, bytesSent, isCached ? 0 : responseBodyLength(networkResponse, response),
+                isCached, error);
+        return response;
+    }
+
+    private static long elapsedMicros(long start) {
+        return (System.nanoTime() - start) / 1000;
+    }
+
+    private static long requestBodyLength(RequestBody body) throws IOException {
+        if (body == null) {
+            return 0;
+        }
+
+        return Math.max(0, body.contentLength());
+    }
+
+    /**
+     * Размер тела ответа, полученного по сети. Ответ 304 тела не содержит,
+     * если сервер не указал размер (chunked), берется размер тела итогового ответа, когда он известен.
+     */
+    private static long responseBodyLength(Response networkResponse, Response response) {
+        if (networkResponse.code() == 304) {
+            return 0;
+        }
+
+        String contentLength = networkResponse.header(CONTENT_LENGTH_HEADER);
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        return response.body() != null ? Math.max(0, response.body().contentLength()) : 0;
+    }
+}
@@ -0,0 +1,246 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Метрики HTTP запросов по шаблонам endpoint: количество, ошибки, байты и гистограмма задержек.
+ * Шаблон получается из метода и пути запроса, числовые сегменты пути заменяются на {id},
+ * поэтому, например, все запросы файлов попадают в "GET /files/{id}".
+ * Заполняется {@link MetricsInterceptor}.
+ */
+public class NetworkMetrics {
+
+    /**
+     * Ошибка без HTTP ответа (нет сети, таймаут).
+     */
+    static final String IO_ERROR = "io";
+
+    private static final NetworkMetrics instance = new NetworkMetrics();
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * API, запросы которых идут мимо общего клиента и не попадают в метрики.
+     */
+    private volatile List<String> unmeasured = Collections.emptyList();
+
+    /**
+     * Метрики одного endpoint. Изменяются и читаются под блокировкой объекта.
+     */
+    public static class Endpoint {
+        private final String template;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final TreeMap<String, Integer> errors = new TreeMap<>();
+        private long requests = 0;
+        private long cached = 0;
+        private long bytesSent = 0;
+        private long bytesReceived = 0;
+
+        Endpoint(String template) {
+            this.template = template;
+        }
+
+        synchronized void record(long latencyMicros, long sent, long received, boolean isCached, String error) {
+            requests++;
+            latency.record(latencyMicros);
+            bytesSent += sent;
+            bytesReceived += received;
+            if (isCached) {
+                cached++;
+            }
+            if (error != null) {
+                Integer count = errors.get(error);
+                errors.put(error, count == null ? 1 : count + 1);
+            }
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public synchronized long getRequests() {
+            return requests;
+        }
+
+        /**
+         * Количество ошибок по HTTP коду или {@link NetworkMetrics#IO_ERROR}.
+         */
+        public synchronized Map<String, Integer> getErrors() {
+            return new TreeMap<>(errors);
+        }
+
+        /**
+         * Перцентиль задержки в микросекундах.
+         */
+        public synchronized long getLatencyPercentile(double percentile) {
+            return latency.getPercentile(percentile);
+        }
+
+        synchronized void writeTo(Appendable out) throws IOException {
+            int errorCount = 0;
+            StringBuilder errorCodes = new StringBuilder();
+            for (Map.Entry<String, Integer> error : errors.entrySet()) {
+                errorCount += error.getValue();
+                if (errorCodes.length() > 0) {
+                    errorCodes.append(',');
+                }
+                errorCodes.append(error.getKey()).append(':').append(error.getValue());
+            }
+
+            out.append(template)
+                    .append('\t').append(Long.toString(requests))
+                    .append('\t').append(Integer.toString(errorCount))
+                    .append('\t').append(Long.toString(cached))
+                    .append('\t').append(formatMillis(latency.getPercentile(50)))
+                    .append('\t').append(formatMillis(latency.getPercentile(95)))
+                    .append('\t').append(formatMillis(latency.getPercentile(99)))
+                    .append('\t').append(formatMillis(latency.getMax()))
+                    .append('\t').append(Long.toString(bytesSent))
+                    .append('\t').append(Long.toString(bytesReceived))
+                    .append('\t').append(errorCodes)
+                    .append('\n');
+        }
+
+        synchronized void reset() {
+            latency.reset();
+            errors.clear();
+            requests = 0;
+            cached = 0;
+            bytesSent = 0;
+            bytesReceived = 0;
+        }
+    }
+
+    NetworkMetrics() {
+    }
+
+    public static NetworkMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Записать результат запроса.
+     * @param method HTTP метод.
+     * @param path путь запроса без query.
+     * @param latencyMicros время от отправки запроса до получения заголовков ответа.
+     * @param bytesSent размер тела запроса.
+     * @param bytesReceived размер тела ответа, полученного по сети (0 для ответа из кэша).
+     * @param isCached ответ получен из HTTP кэша без обращения к серверу.
+     * @param error HTTP код ошибки, {@link #IO_ERROR} или null при успехе.
+     */
+    void record(String method, String path, long latencyMicros, long bytesSent, long bytesReceived,
+                boolean isCached, String error) {
+        String template = toTemplate(method, path);
+        Endpoint endpoint = endpoints.get(template);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(template, Endpoint::new);
+        }
+
+        endpoint.record(latencyMicros, bytesSent, bytesReceived, isCached, error);
+    }
+
+    /**
+     * Отметить API, которые запрашиваются мимо общего клиента (например, клиентом библиотеки протокола).
+     * Их запросов нет в метриках, список выводится последней строкой {@link #writeTo(Appendable)}.
+     * @param apis названия API.
+     */
+    public void setUnmeasured(String... apis) {
+        unmeasured = Collections.unmodifiableList(Arrays.asList(apis.clone()));
+    }
+
+    /**
+     * Метрики всех endpoint, отсортированные по шаблону.
+     */
+    public List<Endpoint> getEndpoints() {
+        List<Endpoint> result = new ArrayList<>(endpoints.values());
+        Collections.sort(result, (first, second) -> first.getTemplate().compareTo(second.getTemplate()));
+        return result;
+    }
+
+    /**
+     * Записать метрики в текстовом виде, разделенном табуляцией: строка заголовка колонок
+     * и по строке на endpoint. Задержки в миллисекундах, ошибки в виде "код:количество" через запятую.
+     * Если есть API без метрик, в конце добавляется строка-комментарий "# not measured: ...".
+     * @param out куда записать.
+     * @throws IOException ошибка записи.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        out.append("endpoint\trequests\terrors\tcached\tp50_ms\tp95_ms\tp99_ms\tmax_ms\tbytes_sent\tbytes_received\terror_codes\n");
+        for (Endpoint endpoint : getEndpoints()) {
+            endpoint.writeTo(out);
+        }
+
+        List<String> unmeasured = this.unmeasured;
+        if (!unmeasured.isEmpty()) {
+            out.append("# not measured: ");
+            for (int i = 0; i < unmeasured.size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+                out.append(unmeasured.get(i));
+            }
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Сбросить накопленные метрики.
+     */
+    public void reset() {
+        for (Endpoint endpoint : endpoints.values()) {
+            endpoint.reset();
+        }
+    }
+
+    /**
+     * Получить шаблон endpoint: метод и путь, в котором числовые сегменты заменены на {id}.
+     */
+    static String toTemplate(String method, String path) {
+        StringBuilder template = new StringBuilder(method.length() + 1 + path.length());
+        template.append(method).append(' ');
+
+        int segmentStart = 0;
+        while (segmentStart < path.length()) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = path.length();
+            }
+
+            if (segmentEnd > segmentStart && isNumber(path, segmentStart, segmentEnd)) {
+                template.append("{id}");
+            } else {
+                template.append(path, segmentStart, segmentEnd);
+            }
+
+            if (segmentEnd < path.length()) {
+                template.append('/');
+            }
+            segmentStart = segmentEnd + 1;
+        }
+
+        return template.toString();
+    }
+
+    private static boolean isNumber(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String formatMillis(long micros) {
+        return String.format(Locale.US, "%.1f", micros / 1000.0);
+    }
+}
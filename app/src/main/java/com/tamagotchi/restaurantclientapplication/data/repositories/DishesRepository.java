@@ -1,97 +1,259 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
-import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
-import com.tamagotchi.restaurantclientapplication.data.exceptions.NotFoundException;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.db.DishDao;
+import com.tamagotchi.restaurantclientapplication.data.db.DishEntity;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpErrorMapper;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IDishesApiService;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
-import retrofit2.HttpException;
 
 public class DishesRepository {
-    private static volatile DishesRepository instance;
+    private static final String TAG = "DishesRepository";
+
+    /**
+     * Максимальное количество одновременных запросов блюд по id.
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+
+    /**
+     * Количество недостающих блюд, начиная с которого выгоднее запросить все блюда одним запросом.
+     */
+    private static final int BULK_REQUEST_THRESHOLD = 2 * MAX_CONCURRENT_REQUESTS;
+
+    /**
+     * Время, после которого блюда в локальной базе считаются устаревшими и обновляются в фоне.
+     */
+    private static final long STORE_TIME_TO_LIVE_MS = TimeUnit.HOURS.toMillis(6);
+
+    private static volatile Lazy<DishesRepository> instance;
 
     private IDishesApiService dishesApiService;
     private static final Object syncInstance = new Object();
 
+    /**
+     * Полученные блюда. Блюда общие для всех ресторанов, поэтому повторные запросы не нужны.
+     */
+    private final ConcurrentHashMap<Integer, DishModel> dishesCache = new ConcurrentHashMap<>();
+
+    /**
+     * Локальное хранилище блюд, переживающее перезапуск приложения.
+     */
+    private DishDao dishDao;
+
+    private final Gson gson = new Gson();
+
+    /**
+     * Выполняется ли фоновое обновление блюд.
+     */
+    private final AtomicBoolean isRefreshing = new AtomicBoolean(false);
+
     // private constructor : singleton access
-    private DishesRepository(IDishesApiService dishesApiService) {
+    private DishesRepository(IDishesApiService dishesApiService, DishDao dishDao) {
         this.dishesApiService = dishesApiService;
+        this.dishDao = dishDao;
     }
 
     public static DishesRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IDishesApiService dishesApiService) {
+    public static void InitializeService(Supplier<IDishesApiService> dishesApiService, Supplier<DishDao> dishDao) {
         synchronized (syncInstance) {
-            instance = new DishesRepository(dishesApiService);
+            instance = new Lazy<>(() -> new DishesRepository(dishesApiService.get(), dishDao.get()));
         }
     }
 
     /**
-     * Получить блюда всех ресторанов.
+     * Получить блюда всех ресторанов с сервера.
+     * Полученные блюда сохраняются в кэш и локальную базу.
      * @return коллекция блюд.
      */
     public Single<List<DishModel>> getAllDishes() {
-        return Single.create(source ->
-                this.dishesApiService.getAllDishes()
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        if (httpError.code() == 401) {
-                                            source.onError(new AuthPasswordException());
-                                        } else {
-                                            source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        return this.dishesApiService.getAllDishes()
+                .compose(HttpErrorMapper.DEFAULT.<List<DishModel>>single())
+                .doOnSuccess(this::onDishesReceived);
     }
 
     /**
      * Получить блюдо по id.
+     * Блюдо ищется в памяти, затем в локальной базе и только потом запрашивается с сервера.
      * @param id id блюда.
      * @return экземпляр блюда.
      */
     public Single<DishModel> getDishById(int id) {
-        return Single.create(source ->
-                this.dishesApiService.getDishById(id)
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        switch (httpError.code()) {
-                                            case 401:
-                                                source.onError(new AuthPasswordException());
-                                                break;
-                                            case 404:
-                                                source.onError(new NotFoundException());
-                                                break;
-                                            default:
-                                                source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        DishModel cached = dishesCache.get(id);
+        if (cached != null) {
+            return Single.just(cached);
+        }
+
+        return loadFromStore(Collections.singletonList(id))
+                .flatMap(loaded -> {
+                    DishModel stored = dishesCache.get(id);
+                    return stored != null ? Single.just(stored) : requestDishById(id);
+                });
+    }
+
+    private Single<DishModel> requestDishById(int id) {
+        return this.dishesApiService.getDishById(id)
+                .compose(HttpErrorMapper.DEFAULT.<DishModel>single())
+                .doOnSuccess(dish -> onDishesReceived(Collections.singletonList(dish)));
+    }
+
+    /**
+     * Получить несколько блюд по id.
+     * Блюда ищутся в памяти, затем в локальной базе. Если недостающих блюд много,
+     * то выполняется один запрос всех блюд, иначе блюда запрашиваются по id
+     * с ограничением количества одновременных запросов (так же, если общий запрос не удался).
+     * Блюда, которые не удалось получить, отсутствуют в результате.
+     * @param ids id блюд.
+     * @return блюда по id.
+     */
+    public Single<Map<Integer, DishModel>> getDishesByIds(Collection<Integer> ids) {
+        return Single.defer(() -> {
+            Set<Integer> missingIds = getMissingIds(ids);
+            if (missingIds.isEmpty()) {
+                return Single.just(getFromCache(ids));
+            }
+
+            return loadFromStore(missingIds)
+                    .flatMap(loaded -> {
+                        Set<Integer> notStoredIds = getMissingIds(ids);
+                        if (notStoredIds.isEmpty()) {
+                            return Single.just(getFromCache(ids));
+                        }
+
+                        return requestDishes(notStoredIds).toSingle(() -> getFromCache(ids));
+                    });
+        });
+    }
+
+    private Completable requestDishes(Set<Integer> ids) {
+        if (ids.size() >= BULK_REQUEST_THRESHOLD) {
+            // Если общий запрос не удался, то запрашиваем блюда по id, чтобы потерять только недоступные блюда.
+            return getAllDishes().ignoreElement()
+                    .onErrorResumeNext(error -> {
+                        Log.e(TAG, "Can't get all dishes", error);
+                        return requestDishesByIds(ids);
+                    });
+        }
+
+        return requestDishesByIds(ids);
+    }
+
+    private Completable requestDishesByIds(Set<Integer> ids) {
+        return Observable.fromIterable(ids)
+                .flatMap(id -> requestDishById(id).toObservable()
+                                .subscribeOn(Schedulers.io())
+                                .onErrorResumeNext(error -> {
+                                    Log.e(TAG, "Can't get dish " + id, error);
+                                    return Observable.empty();
+                                }),
+                        MAX_CONCURRENT_REQUESTS)
+                .ignoreElements();
+    }
+
+    /**
+     * Загрузить блюда из локальной базы в кэш памяти.
+     * Если среди загруженных блюд есть устаревшие, то в фоне запускается обновление всех блюд,
+     * при этом устаревшие блюда все равно возвращаются сразу.
+     * @param ids id блюд.
+     * @return количество загруженных блюд.
+     */
+    private Single<Integer> loadFromStore(Collection<Integer> ids) {
+        return Single.fromCallable(() -> {
+            long staleTime = System.currentTimeMillis() - STORE_TIME_TO_LIVE_MS;
+            boolean hasStale = false;
+
+            List<DishEntity> entities = dishDao.getByIds(new ArrayList<>(ids));
+            for (DishEntity entity : entities) {
+                dishesCache.put(entity.getId(), entity.toModel(gson));
+                hasStale |= entity.getUpdatedAt() < staleTime;
+            }
+
+            if (hasStale) {
+                refreshInBackground();
+            }
+
+            return entities.size();
+        }).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Обновить все блюда с сервера в фоне. Одновременно выполняется не больше одного обновления.
+     */
+    private void refreshInBackground() {
+        if (!isRefreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        getAllDishes()
+                .subscribeOn(Schedulers.io())
+                .doFinally(() -> isRefreshing.set(false))
+                .subscribe(
+                        dishes -> Log.i(TAG, "Dishes refreshed: " + dishes.size()),
+                        error -> Log.e(TAG, "Can't refresh dishes", error));
+    }
+
+    private void onDishesReceived(List<DishModel> dishes) {
+        List<DishEntity> entities = new ArrayList<>(dishes.size());
+        long updatedAt = System.currentTimeMillis();
+
+        for (DishModel dish : dishes) {
+            dishesCache.put(dish.getId(), dish);
+            entities.add(DishEntity.fromModel(dish, gson, updatedAt));
+        }
+
+        Completable.fromAction(() -> dishDao.insertAll(entities))
+                .subscribeOn(Schedulers.io())
+                .subscribe(
+                        () -> {
+                        },
+                        error -> Log.e(TAG, "Can't save dishes", error));
+    }
+
+    private Set<Integer> getMissingIds(Collection<Integer> ids) {
+        Set<Integer> missingIds = new LinkedHashSet<>();
+        for (Integer id : ids) {
+            if (!dishesCache.containsKey(id)) {
+                missingIds.add(id);
+            }
+        }
+
+        return missingIds;
+    }
+
+    private Map<Integer, DishModel> getFromCache(Collection<Integer> ids) {
+        Map<Integer, DishModel> dishes = new HashMap<>();
+        for (Integer id : ids) {
+            DishModel dish = dishesCache.get(id);
+            if (dish != null) {
+                dishes.put(id, dish);
+            }
+        }
+
+        return dishes;
     }
 }
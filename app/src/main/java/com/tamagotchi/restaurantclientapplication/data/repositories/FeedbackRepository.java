@@ -2,35 +2,41 @@ package com.tamagotchi.restaurantclientapplication.data.repositories;
 
 import com.tamagotchi.restaurantclientapplication.data.exceptions.BadRequestException;
 import com.tamagotchi.restaurantclientapplication.data.exceptions.ConflictException;
+import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.models.FeedbackCreateModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.FeedbackModel;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IFeedbackApiService;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import retrofit2.HttpException;
 
 public class FeedbackRepository {
-    private static volatile FeedbackRepository instance;
+    private static volatile Lazy<FeedbackRepository> instance;
 
     private IFeedbackApiService feedbackApiService;
+    private AuthenticationService authenticationService;
     private static final Object syncInstance = new Object();
 
     // private constructor : singleton access
-    private FeedbackRepository(IFeedbackApiService feedbackApiService) {
+    private FeedbackRepository(IFeedbackApiService feedbackApiService, AuthenticationService authenticationService) {
         this.feedbackApiService = feedbackApiService;
+        this.authenticationService = authenticationService;
     }
 
     public static FeedbackRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IFeedbackApiService feedbackApiService) {
+    public static void InitializeService(Supplier<IFeedbackApiService> feedbackApiService, Supplier<AuthenticationService> authenticationService) {
         synchronized (syncInstance) {
-            instance = new FeedbackRepository(feedbackApiService);
+            instance = new Lazy<>(() -> new FeedbackRepository(feedbackApiService.get(), authenticationService.get()));
         }
     }
 
@@ -39,6 +45,8 @@ public class FeedbackRepository {
     }
 
     public Single<FeedbackModel> addFeedback(FeedbackCreateModel feedback) {
-        return this.feedbackApiService.addFeedback(feedback);
+        // Запрос авторизованный, поэтому выполняется после восстановления токена.
+        return authenticationService.whenRestored()
+                .andThen(this.feedbackApiService.addFeedback(feedback).subscribeOn(Schedulers.io()));
     }
 }
\ No newline at end of file
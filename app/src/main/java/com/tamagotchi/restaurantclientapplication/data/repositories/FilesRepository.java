@@ -1,55 +1,162 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 
-import com.tamagotchi.restaurantclientapplication.Application;
-import com.tamagotchi.restaurantclientapplication.R;
-import com.tamagotchi.tamagotchiserverprotocol.routers.IDishesApiService;
+import com.tamagotchi.restaurantclientapplication.data.cache.ImageDiskCache;
+import com.tamagotchi.restaurantclientapplication.data.cache.ImageKey;
+import com.tamagotchi.restaurantclientapplication.data.cache.ImageMemoryCache;
+import com.tamagotchi.restaurantclientapplication.services.BitmapDecoder;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IFilesApiService;
 
+import java.io.File;
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
-import io.reactivex.rxjava3.schedulers.Schedulers;
-import retrofit2.http.Url;
 
 public class FilesRepository {
-    private static volatile FilesRepository instance;
+    private static volatile Lazy<FilesRepository> instance;
 
-    // private IDishesApiService dishesApiService;
     private static final Object syncInstance = new Object();
     private IFilesApiService filesApiService;
-    private HashMap<Integer, Bitmap> filesCache = new HashMap<>();
+
+    /**
+     * Кэш декодированных изображений в памяти.
+     */
+    private ImageMemoryCache memoryCache;
+
+    /**
+     * Кэш загруженных файлов на диске.
+     */
+    private ImageDiskCache diskCache;
+
+    /**
+     * Выполняющиеся загрузки изображений.
+     * Одновременные запросы одного id и размера получают общую загрузку и общее декодирование.
+     */
+    private final ConcurrentHashMap<ImageKey, Single<Bitmap>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Выполняющиеся загрузки файлов с сервера.
+     * Запросы одного файла в разных размерах используют одну загрузку.
+     */
+    private final ConcurrentHashMap<Integer, Single<File>> inFlightDownloads = new ConcurrentHashMap<>();
 
     // private constructor : singleton access
-    private FilesRepository(IFilesApiService filesApiService) {
+    private FilesRepository(IFilesApiService filesApiService, ImageMemoryCache memoryCache, ImageDiskCache diskCache) {
         this.filesApiService = filesApiService;
+        this.memoryCache = memoryCache;
+        this.diskCache = diskCache;
     }
 
     public static FilesRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IFilesApiService filesApiService) {
+    /**
+     * Был ли репозиторий уже создан. Позволяет не создавать репозиторий ради освобождения памяти.
+     */
+    public static boolean isCreated() {
         synchronized (syncInstance) {
-            instance = new FilesRepository(filesApiService);
+            return instance != null && instance.isInitialized();
         }
     }
 
+    public static void InitializeService(Supplier<IFilesApiService> filesApiService, Supplier<ImageMemoryCache> memoryCache, Supplier<ImageDiskCache> diskCache) {
+        synchronized (syncInstance) {
+            instance = new Lazy<>(() -> new FilesRepository(filesApiService.get(), memoryCache.get(), diskCache.get()));
+        }
+    }
+
+    /**
+     * Получить изображение по id файла в исходном разрешении.
+     * @param id id файла на сервере.
+     * @return изображение.
+     */
     public Single<Bitmap> getImageById(int id) {
-        if (filesCache.containsKey(id)) {
-            return Single.just(filesCache.get(id));
+        return getImageById(id, ImageKey.ORIGINAL_SIZE, ImageKey.ORIGINAL_SIZE);
+    }
+
+    /**
+     * Получить изображение по id файла, уменьшенное под размер view.
+     * Сначала изображение ищется в памяти, затем на диске и только потом загружается с сервера.
+     * @param id id файла на сервере.
+     * @param width ширина view в пикселях.
+     * @param height высота view в пикселях.
+     * @return изображение не меньше требуемого размера.
+     */
+    public Single<Bitmap> getImageById(int id, int width, int height) {
+        ImageKey key = new ImageKey(id, width, height);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            return Single.just(cached);
+        }
+
+        Single<Bitmap> inFlight = inFlightRequests.get(key);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        Single<Bitmap> request = Maybe.fromCallable(() -> diskCache.get(id))
+                .switchIfEmpty(downloadImage(id))
+                .map(file -> decodeImage(key, file))
+                .doOnSuccess(image -> memoryCache.put(key, image))
+                .doFinally(() -> inFlightRequests.remove(key))
+                .cache();
+
+        inFlight = inFlightRequests.putIfAbsent(key, request);
+        return inFlight != null ? inFlight : request;
+    }
+
+    /**
+     * Получить изображение из кэша в памяти без загрузки, например чтобы показать его при привязке view без заглушки.
+     * @param id id файла на сервере.
+     * @param width ширина view в пикселях.
+     * @param height высота view в пикселях.
+     * @return изображение или null, если его нет в памяти.
+     */
+    public Bitmap getCachedImage(int id, int width, int height) {
+        return memoryCache.get(new ImageKey(id, width, height));
+    }
+
+    /**
+     * Очистить кэш изображений в памяти. Файлы на диске сохраняются.
+     */
+    public void trimMemory() {
+        memoryCache.clear();
+    }
+
+    private Single<File> downloadImage(int id) {
+        return Single.defer(() -> {
+            Single<File> inFlight = inFlightDownloads.get(id);
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            Single<File> download = this.filesApiService.downloadFileWithDynamicUrlSync("https://restaurant-tamagotchi.ru:3000/api/files/" + id)
+                    .map(responseBody -> diskCache.put(id, responseBody.byteStream()))
+                    .doFinally(() -> inFlightDownloads.remove(id))
+                    .cache();
+
+            inFlight = inFlightDownloads.putIfAbsent(id, download);
+            return inFlight != null ? inFlight : download;
+        });
+    }
+
+    private Bitmap decodeImage(ImageKey key, File file) throws IOException {
+        Bitmap image = BitmapDecoder.decodeSampled(file, key.getWidth(), key.getHeight(), true);
+        if (image == null) {
+            // Файл поврежден, при следующем запросе он будет загружен заново.
+            diskCache.remove(key.getId());
+            throw new IOException("Can't decode image " + key);
         }
 
-        // TODO: добавить кеширование.
-        return this.filesApiService.downloadFileWithDynamicUrlSync("https://restaurant-tamagotchi.ru:3000/api/files/" + id)
-                .map(responseBody -> BitmapFactory.decodeStream(responseBody.byteStream()))
-                .doOnSuccess(result -> filesCache.put(id, result));
+        return image;
     }
 }
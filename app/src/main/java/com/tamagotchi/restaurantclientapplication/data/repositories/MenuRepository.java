@@ -1,20 +1,18 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
-import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
-import com.tamagotchi.restaurantclientapplication.data.exceptions.NotFoundException;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpErrorMapper;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.models.MenuItem;
 import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IMenuApiService;
 
 import java.util.List;
+import java.util.function.Supplier;
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Single;
-import io.reactivex.rxjava3.schedulers.Schedulers;
-import retrofit2.HttpException;
 
 public class MenuRepository {
-    private static volatile MenuRepository instance;
+    private static volatile Lazy<MenuRepository> instance;
 
     private IMenuApiService menuApiService;
     private static final Object syncInstance = new Object();
@@ -26,13 +24,13 @@ public class MenuRepository {
 
     public static MenuRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IMenuApiService menuApiService) {
+    public static void InitializeService(Supplier<IMenuApiService> menuApiService) {
         synchronized (syncInstance) {
-            instance = new MenuRepository(menuApiService);
+            instance = new Lazy<>(() -> new MenuRepository(menuApiService.get()));
         }
     }
 
@@ -42,27 +40,8 @@ public class MenuRepository {
      * @return Меню ресторана.
      */
     public Single<List<MenuItem>> getMenu(int restaurantId) {
-        return Single.create(source ->
-                this.menuApiService.getMenu(restaurantId)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        if (httpError.code() == 401) {
-                                            source.onError(new AuthPasswordException());
-                                        } else {
-                                            source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        return this.menuApiService.getMenu(restaurantId)
+                .compose(HttpErrorMapper.DEFAULT.<List<MenuItem>>single());
     }
 
     /**
@@ -72,29 +51,7 @@ public class MenuRepository {
      * @return элемент меню.
      */
     public Single<MenuItem> getMenuItemById(int restaurantId, int menuItemId) {
-        return Single.create(source ->
-                this.menuApiService.getMenuItemById(restaurantId, menuItemId)
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        switch (httpError.code()) {
-                                            case 401:
-                                                source.onError(new AuthPasswordException());
-                                                break;
-                                            case 404:
-                                                source.onError(new NotFoundException());
-                                                break;
-                                            default:
-                                                source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        return this.menuApiService.getMenuItemById(restaurantId, menuItemId)
+                .compose(HttpErrorMapper.DEFAULT.<MenuItem>single());
     }
 }
@@ -1,6 +1,11 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.db.OrderDao;
+import com.tamagotchi.restaurantclientapplication.data.db.OrderEntity;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
+import com.tamagotchi.restaurantclientapplication.services.OrderSyncService;
 import com.tamagotchi.tamagotchiserverprotocol.models.OrderCreateModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.OrderPathModel;
@@ -9,7 +14,9 @@ import com.tamagotchi.tamagotchiserverprotocol.models.enums.OrderStatus;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IAuthenticateApiService;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IOrdersApiService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Completable;
@@ -17,28 +24,36 @@ import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import retrofit2.http.Query;
 
-public class OrderRepository {
-    private static volatile OrderRepository instance;
+public class OrderRepository implements OrderSyncService.OrdersSource {
+    private static volatile Lazy<OrderRepository> instance;
 
     private IOrdersApiService ordersApiService;
     private AuthenticationService authenticateApiService;
     private static final Object syncInstance = new Object();
 
+    /**
+     * Локальное хранилище заказов последней синхронизации.
+     */
+    private OrderDao orderDao;
+
+    private final Gson gson = new Gson();
+
     // private constructor : singleton access
-    private OrderRepository(IOrdersApiService ordersApiService, AuthenticationService authenticateApiService) {
+    private OrderRepository(IOrdersApiService ordersApiService, AuthenticationService authenticateApiService, OrderDao orderDao) {
         this.ordersApiService = ordersApiService;
         this.authenticateApiService = authenticateApiService;
+        this.orderDao = orderDao;
     }
 
     public static OrderRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IOrdersApiService ordersApiService, AuthenticationService authenticationService) {
+    public static void InitializeService(Supplier<IOrdersApiService> ordersApiService, Supplier<AuthenticationService> authenticationService, Supplier<OrderDao> orderDao) {
         synchronized (syncInstance) {
-            instance = new OrderRepository(ordersApiService, authenticationService);
+            instance = new Lazy<>(() -> new OrderRepository(ordersApiService.get(), authenticationService.get(), orderDao.get()));
         }
     }
 
@@ -47,10 +62,46 @@ public class OrderRepository {
      *
      * @return Single на коллекци заказов
      */
+    @Override
     public Single<List<OrderModel>> getUserOrders(int userId) {
         return ordersApiService.getAllOrders(userId, null, null, null);
     }
 
+    /**
+     * Получить сохраненные заказы пользователя.
+     * @param userId id пользователя.
+     * @return заказы последней синхронизации, пустая коллекция если заказы не сохранялись.
+     */
+    @Override
+    public Single<List<OrderModel>> getStoredOrders(int userId) {
+        return Single.fromCallable(() -> {
+            List<OrderEntity> entities = orderDao.getByUser(userId);
+            List<OrderModel> orders = new ArrayList<>(entities.size());
+            for (OrderEntity entity : entities) {
+                orders.add(entity.toModel(gson));
+            }
+
+            return orders;
+        }).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Сохранить заказы пользователя вместо ранее сохраненных.
+     * @param userId id пользователя.
+     * @param orders заказы пользователя.
+     */
+    @Override
+    public Completable saveOrders(int userId, List<OrderModel> orders) {
+        return Completable.fromAction(() -> {
+            List<OrderEntity> entities = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                entities.add(OrderEntity.fromModel(orders.get(i), userId, i, gson));
+            }
+
+            orderDao.replaceByUser(userId, entities);
+        }).subscribeOn(Schedulers.io());
+    }
+
     public Single<OrderModel> getOrderById(Integer orderId) {
         return null;
     }
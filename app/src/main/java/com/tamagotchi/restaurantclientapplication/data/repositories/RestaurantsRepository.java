@@ -1,94 +1,147 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
-import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
-import com.tamagotchi.restaurantclientapplication.data.exceptions.NotFoundException;
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.db.RestaurantDao;
+import com.tamagotchi.restaurantclientapplication.data.db.RestaurantEntity;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpErrorMapper;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IRestaurantsApiService;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
-import retrofit2.HttpException;
 
 public class RestaurantsRepository {
-    private static volatile RestaurantsRepository instance;
+    private static final String TAG = "RestaurantsRepository";
+
+    private static volatile Lazy<RestaurantsRepository> instance;
     private static final Object syncInstance = new Object();
     private IRestaurantsApiService restaurantsApiService;
 
+    /**
+     * Локальное хранилище последнего полученного списка ресторанов.
+     */
+    private RestaurantDao restaurantDao;
+
+    private final Gson gson = new Gson();
+
     // private constructor : singleton access
-    private RestaurantsRepository(IRestaurantsApiService restaurantsApiService) {
+    private RestaurantsRepository(IRestaurantsApiService restaurantsApiService, RestaurantDao restaurantDao) {
         this.restaurantsApiService = restaurantsApiService;
+        this.restaurantDao = restaurantDao;
     }
 
-    public synchronized static void InitializeService(IRestaurantsApiService restaurantsApiService) {
+    public synchronized static void InitializeService(Supplier<IRestaurantsApiService> restaurantsApiService, Supplier<RestaurantDao> restaurantDao) {
         synchronized (syncInstance) {
-            instance = new RestaurantsRepository(restaurantsApiService);
+            instance = new Lazy<>(() -> new RestaurantsRepository(restaurantsApiService.get(), restaurantDao.get()));
         }
     }
 
     public static RestaurantsRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
     /**
      * Получить все рестораны в системе.
+     * Если список ресторанов был сохранен ранее, то он возвращается сразу,
+     * после чего список запрашивается с сервера и возвращается повторно, только если он изменился.
+     * Если сохраненного списка нет, то возвращается только список с сервера.
      *
      * @return Наблюдаемая коллекция ресторанов.
      */
-    public Single<List<RestaurantModel>> getAllRestaurants() {
-        return Single.create(source ->
-                this.restaurantsApiService.getAllRestaurants()
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                result -> {
-                                    source.onSuccess(result);
-                                },
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        if (httpError.code() == 401) {
-                                            source.onError(new AuthPasswordException());
-                                        } else {
-                                            source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+    public Observable<List<RestaurantModel>> getAllRestaurants() {
+        return Single.fromCallable(restaurantDao::getAll)
+                .subscribeOn(Schedulers.io())
+                .onErrorReturn(error -> {
+                    Log.e(TAG, "Can't read saved restaurants", error);
+                    return Collections.emptyList();
+                })
+                .flatMapObservable(stored -> {
+                    Observable<List<RestaurantModel>> network = requestAllRestaurants()
+                            .observeOn(Schedulers.io())
+                            .flatMapMaybe(restaurants -> saveIfChanged(stored, restaurants))
+                            .toObservable();
+
+                    if (stored.isEmpty()) {
+                        return network;
+                    }
+
+                    // Сохраненный список уже показан, ошибка обновления не должна его скрывать.
+                    return network
+                            .onErrorResumeNext(error -> {
+                                Log.w(TAG, "Can't refresh restaurants", error);
+                                return Observable.empty();
+                            })
+                            .startWithItem(toModels(stored));
+                });
+    }
+
+    /**
+     * Сохранить список ресторанов, если он отличается от сохраненного.
+     * @param stored сохраненный список.
+     * @param restaurants список с сервера.
+     * @return список с сервера или пустой Maybe, если список не изменился.
+     */
+    private Maybe<List<RestaurantModel>> saveIfChanged(List<RestaurantEntity> stored, List<RestaurantModel> restaurants) {
+        List<RestaurantEntity> entities = new ArrayList<>(restaurants.size());
+        for (int i = 0; i < restaurants.size(); i++) {
+            entities.add(RestaurantEntity.fromModel(restaurants.get(i), i, gson));
+        }
+
+        if (isSame(stored, entities)) {
+            return Maybe.empty();
+        }
+
+        try {
+            restaurantDao.replaceAll(entities);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Can't save restaurants", e);
+        }
+
+        return Maybe.just(restaurants);
+    }
+
+    private boolean isSame(List<RestaurantEntity> first, List<RestaurantEntity> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < first.size(); i++) {
+            if (first.get(i).getId() != second.get(i).getId() || !first.get(i).getJson().equals(second.get(i).getJson())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private List<RestaurantModel> toModels(List<RestaurantEntity> entities) {
+        List<RestaurantModel> restaurants = new ArrayList<>(entities.size());
+        for (RestaurantEntity entity : entities) {
+            restaurants.add(entity.toModel(gson));
+        }
+
+        return restaurants;
+    }
+
+    private Single<List<RestaurantModel>> requestAllRestaurants() {
+        return this.restaurantsApiService.getAllRestaurants()
+                .compose(HttpErrorMapper.DEFAULT.<List<RestaurantModel>>single());
     }
 
     public Single<RestaurantModel> getRestaurantById(Integer id) {
-        return Single.create(source ->
-                this.restaurantsApiService.getRestaurantById(id)
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        switch (httpError.code()) {
-                                            case 401:
-                                                source.onError(new AuthPasswordException());
-                                                break;
-                                            case 404:
-                                                source.onError(new NotFoundException());
-                                                break;
-                                            default:
-                                                source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        return this.restaurantsApiService.getRestaurantById(id)
+                .compose(HttpErrorMapper.DEFAULT.<RestaurantModel>single());
     }
 }
\ No newline at end of file
@@ -1,42 +1,45 @@
 package com.tamagotchi.restaurantclientapplication.data.repositories;
 
 import com.tamagotchi.restaurantclientapplication.data.exceptions.AccountExistException;
-import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
 import com.tamagotchi.restaurantclientapplication.data.model.LoginInfo;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpErrorMapper;
+import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
+import com.tamagotchi.restaurantclientapplication.services.Lazy;
 import com.tamagotchi.tamagotchiserverprotocol.models.UpdatableInfoUser;
 import com.tamagotchi.tamagotchiserverprotocol.models.UserModel;
 import com.tamagotchi.tamagotchiserverprotocol.routers.IUsersApiService;
 import com.tamagotchi.tamagotchiserverprotocol.models.CredentialsModel;
 
 import java.util.List;
+import java.util.function.Supplier;
 
-import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
-import retrofit2.HttpException;
 
 public class UsersRepository {
 
-    private static volatile UsersRepository instance;
+    private static volatile Lazy<UsersRepository> instance;
 
     private IUsersApiService usersApiService;
+    private AuthenticationService authenticationService;
     private static final Object syncInstance = new Object();
 
     // private constructor : singleton access
-    private UsersRepository(IUsersApiService accountsApiService) {
+    private UsersRepository(IUsersApiService accountsApiService, AuthenticationService authenticationService) {
         this.usersApiService = accountsApiService;
+        this.authenticationService = authenticationService;
     }
 
     public static UsersRepository getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    public static void InitializeService(IUsersApiService accountsApiService) {
+    public static void InitializeService(Supplier<IUsersApiService> accountsApiService, Supplier<AuthenticationService> authenticationService) {
         synchronized (syncInstance) {
-            instance = new UsersRepository(accountsApiService);
+            instance = new Lazy<>(() -> new UsersRepository(accountsApiService.get(), authenticationService.get()));
         }
     }
 
@@ -50,71 +53,20 @@ public class UsersRepository {
         CredentialsModel signUpInfo = new CredentialsModel(loginInfo.getLogin(),
                 loginInfo.getPassword().getPasswordMd5());
 
-        return Completable.create(source -> {
-            usersApiService.createUser(signUpInfo)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(source::onComplete, error -> {
-                        if (error instanceof HttpException) {
-                            HttpException httpError = (HttpException) error;
-
-                            if (httpError.code() == 403) {
-                                source.onError(new AccountExistException());
-                            } else {
-                                source.onError(new Exception(error));
-                            }
-                        } else {
-                            source.onError(new Exception(error));
-                        }
-                    });
-        });
+        return usersApiService.createUser(signUpInfo)
+                .compose(HttpErrorMapper.DEFAULT.on(403, AccountExistException::new).completable());
     }
 
     public Single<UserModel> getUserById(int id) {
-        return Single.create(source ->
-                this.usersApiService.getUserById(id)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        if (httpError.code() == 401) {
-                                            source.onError(new AuthPasswordException());
-                                        } else {
-                                            source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        // Запрос авторизованный, поэтому выполняется после восстановления токена.
+        return authenticationService.whenRestored()
+                .andThen(this.usersApiService.getUserById(id).subscribeOn(Schedulers.io()))
+                .compose(HttpErrorMapper.DEFAULT.<UserModel>single());
     }
 
     public Single<UserModel> updateUser(int id, UpdatableInfoUser update) {
-        return Single.create(source ->
-                this.usersApiService.updateUser(id, update)
-                        .subscribeOn(Schedulers.io())
-                        .observeOn(AndroidSchedulers.mainThread())
-                        .subscribe(
-                                source::onSuccess,
-                                error -> {
-                                    if (error instanceof HttpException) {
-                                        HttpException httpError = (HttpException) error;
-
-                                        if (httpError.code() == 401) {
-                                            source.onError(new AuthPasswordException());
-                                        } else {
-                                            source.onError(new Exception(error));
-                                        }
-                                    } else {
-                                        source.onError(new Exception(error));
-                                    }
-                                }
-                        )
-        );
+        return authenticationService.whenRestored()
+                .andThen(this.usersApiService.updateUser(id, update).subscribeOn(Schedulers.io()))
+                .compose(HttpErrorMapper.DEFAULT.<UserModel>single());
     }
 }
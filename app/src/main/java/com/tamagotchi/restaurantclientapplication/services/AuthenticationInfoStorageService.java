@@ -7,31 +7,53 @@ import com.tamagotchi.restaurantclientapplication.Application;
 import com.tamagotchi.tamagotchiserverprotocol.RestaurantClient;
 import com.tamagotchi.tamagotchiserverprotocol.models.AuthenticateInfoModel;
 
+/**
+ * Хранение jwt текущего пользователя.
+ * Токен читается из SharedPreferences один раз и дальше берется из памяти,
+ * т.к. он запрашивается при каждом HTTP запросе (см. AuthorizationInterceptor).
+ * Сам токен в лог не пишется.
+ */
 public class AuthenticationInfoStorageService {
     private static final String TAG = "AuthenticationInfoStorageService";
     private final static String TOKEN = "token";
 
+    /**
+     * Токен в памяти, null пока не прочитан из SharedPreferences.
+     */
+    private volatile String token = null;
+
     String getToken() {
-        String token = Application.getPrefs().getString(TOKEN, "");
-        Log.i(TAG, "Token get: " + token);
-        return token;
+        String current = token;
+        if (current == null) {
+            synchronized (this) {
+                if (token == null) {
+                    token = Application.getPrefs().getString(TOKEN, "");
+                    Log.i(TAG, "Token loaded");
+                }
+                current = token;
+            }
+        }
+
+        return current;
     }
 
-    void removeToken() {
+    synchronized void removeToken() {
         SharedPreferences.Editor edit;
 
+        token = "";
         edit = Application.getPrefs().edit();
         edit.remove(TOKEN);
         Log.i(TAG, "Token remove");
         edit.apply();
     }
 
-    void saveToken(String token) {
+    synchronized void saveToken(String token) {
         SharedPreferences.Editor edit;
 
+        this.token = token;
         edit = Application.getPrefs().edit();
         edit.putString(TOKEN, token);
-        Log.i(TAG, "Token save " + token);
+        Log.i(TAG, "Token save");
         edit.apply();
     }
 }
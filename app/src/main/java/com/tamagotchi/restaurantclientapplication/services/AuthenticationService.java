@@ -1,8 +1,8 @@
 package com.tamagotchi.restaurantclientapplication.services;
 
 import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthLoginException;
-import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordException;
 import com.tamagotchi.restaurantclientapplication.data.model.LoginInfo;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpErrorMapper;
 import com.tamagotchi.tamagotchiserverprotocol.models.AuthenticateInfoModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.CredentialsModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.UserModel;
@@ -13,9 +13,9 @@ import com.tamagotchi.tamagotchiserverprotocol.services.IAuthenticateInfoService
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Completable;
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
-import retrofit2.HttpException;
 
 public class AuthenticationService {
 
@@ -38,6 +38,17 @@ public class AuthenticationService {
         return currentUserSource;
     }
 
+    /**
+     * Дождаться восстановления авторизации при запуске (первого значения {@link #isAuthenticated()}).
+     * Токен восстанавливается в фоне, до этого клиент библиотеки протокола запрашивает API без токена
+     * и получает 401, поэтому запросы к авторизованным API библиотеки нужно выполнять после этого Completable.
+     * Завершается в главном потоке или сразу, если авторизация уже восстановлена.
+     * @return Completable восстановления авторизации.
+     */
+    public Completable whenRestored() {
+        return isAuthenticatedSource.firstElement().ignoreElement();
+    }
+
     private static final Object syncInstance = new Object();
     private static AuthenticationService instance;
 
@@ -56,7 +67,7 @@ public class AuthenticationService {
         isAuthenticatedSource = isAuthenticatedSourceSubject.hide();
         currentUserSource = currentUserSubject.hide();
 
-        this.loadAuthenticate();
+        this.restoreAuthenticate();
     }
 
     public static AuthenticationService getInstance() {
@@ -83,44 +94,47 @@ public class AuthenticationService {
         // Сбрасываем предыдущее значение, т.к. оно вернеться подписчикам.
         authenticateInfoService.LogOut();
 
-        return Completable.create(source -> {
-            this.authenticateApiService.authenticate(loginInfoModel)
-                    .subscribeOn(Schedulers.io())
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribe(
-                            accountAuthData -> {
-                                // Если сервер не вернул jwt, но запрос был успешен, то нажно проверять сервер.
-                                if (accountAuthData.getToken().isEmpty()) {
-                                    source.onError(new Exception("Server fault. Check the server."));
-                                    return;
-                                }
-
-                                // Сохраяем jwt и авторизируемся
-                                authenticateInfoService.LogIn(new AuthenticateInfoModel(accountAuthData.getToken()));
-                                storageService.saveToken(accountAuthData.getToken());
-                                loadAuthenticate();
-
-                                source.onComplete();
-                            },
-                            error -> {
-                                if (error instanceof HttpException) {
-                                    HttpException httpError = (HttpException) error;
-
-                                    switch (httpError.code()) {
-                                        case 401:
-                                            source.onError(new AuthPasswordException());
-                                            break;
-                                        case 404:
-                                            source.onError(new AuthLoginException());
-                                            break;
-                                        default:
-                                            source.onError(new Exception(error));
-                                    }
-                                } else {
-                                    source.onError(new Exception(error));
-                                }
-                            });
-        });
+        return this.authenticateApiService.authenticate(loginInfoModel)
+                .flatMapCompletable(accountAuthData -> {
+                    // Если сервер не вернул jwt, но запрос был успешен, то нажно проверять сервер.
+                    if (accountAuthData.getToken().isEmpty()) {
+                        return Completable.error(new Exception("Server fault. Check the server."));
+                    }
+
+                    // Сохраяем jwt и авторизируемся
+                    authenticateInfoService.LogIn(new AuthenticateInfoModel(accountAuthData.getToken()));
+                    storageService.saveToken(accountAuthData.getToken());
+                    loadAuthenticate();
+
+                    return Completable.complete();
+                })
+                .compose(HttpErrorMapper.DEFAULT.on(404, AuthLoginException::new).completable());
+    }
+
+    /**
+     * Восстановить авторизацию по сохраненному токену при запуске приложения.
+     * Токен читается из SharedPreferences в фоне, чтобы не задерживать первый кадр,
+     * дальнейшая проверка выполняется в главном потоке, как и после входа.
+     */
+    private void restoreAuthenticate() {
+        Single.fromCallable(() -> {
+            StartupTracer.begin("auth.token_load");
+            String token = storageService.getToken();
+            StartupTracer.end("auth.token_load");
+            return token;
+        })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        token -> {
+                            if (!authenticateInfoService.isAuthenticate() && !token.isEmpty()) {
+                                authenticateInfoService.LogIn(new AuthenticateInfoModel(token));
+                            }
+
+                            loadAuthenticate();
+                        }
+                        , error -> isAuthenticatedSourceSubject.onNext(false)
+                );
     }
 
     private void loadAuthenticate() {
@@ -133,15 +147,18 @@ public class AuthenticationService {
         }
 
         if (authenticateInfoService.isAuthenticate()) {
+            StartupTracer.begin("auth.account_fetch");
             this.accountApiService.getCurrentAccount()
                     .subscribeOn(Schedulers.io())
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe(
                             account -> {
+                                StartupTracer.end("auth.account_fetch");
                                 isAuthenticatedSourceSubject.onNext(true);
                                 currentUserSubject.onNext(account);
                             }
                             , error -> {
+                                StartupTracer.end("auth.account_fetch");
                                 authenticateInfoService.LogOut();
                                 signOut();
                             }
@@ -0,0 +1,71 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.File;
+
+/**
+ * Декодирование изображений под размер view, в котором они будут показаны.
+ */
+public class BitmapDecoder {
+
+    private static final String JPEG_MIME_TYPE = "image/jpeg";
+
+    /**
+     * Декодировать файл изображения с уменьшением под требуемый размер.
+     * Сначала читаются только размеры изображения, затем подбирается inSampleSize,
+     * чтобы декодированное изображение было не меньше требуемого размера.
+     * @param file файл изображения.
+     * @param reqWidth требуемая ширина в пикселях, 0 - без ограничения.
+     * @param reqHeight требуемая высота в пикселях, 0 - без ограничения.
+     * @param preferOpaque использовать RGB_565 для изображений без прозрачности (jpeg).
+     * @return изображение или null, если файл не удалось декодировать.
+     */
+    public static Bitmap decodeSampled(File file, int reqWidth, int reqHeight, boolean preferOpaque) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getPath(), options);
+
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, reqWidth, reqHeight);
+        options.inJustDecodeBounds = false;
+
+        // Jpeg не содержит альфа-канала, поэтому 2 байта на пиксель достаточно.
+        if (preferOpaque && JPEG_MIME_TYPE.equals(options.outMimeType)) {
+            options.inPreferredConfig = Bitmap.Config.RGB_565;
+        }
+
+        return BitmapFactory.decodeFile(file.getPath(), options);
+    }
+
+    /**
+     * Подобрать максимальный inSampleSize (степень двойки), при котором
+     * изображение остается не меньше требуемого размера.
+     * @param width ширина исходного изображения.
+     * @param height высота исходного изображения.
+     * @param reqWidth требуемая ширина, 0 - без ограничения.
+     * @param reqHeight требуемая высота, 0 - без ограничения.
+     * @return inSampleSize для BitmapFactory.Options.
+     */
+    static int calculateInSampleSize(int width, int height, int reqWidth, int reqHeight) {
+        int inSampleSize = 1;
+
+        if (reqWidth <= 0 && reqHeight <= 0) {
+            return inSampleSize;
+        }
+
+        int halfWidth = width / 2;
+        int halfHeight = height / 2;
+
+        while ((reqWidth <= 0 || halfWidth / inSampleSize >= reqWidth)
+                && (reqHeight <= 0 || halfHeight / inSampleSize >= reqHeight)) {
+            inSampleSize *= 2;
+        }
+
+        return inSampleSize;
+    }
+}
@@ -1,5 +1,16 @@
 package com.tamagotchi.restaurantclientapplication.services;
 
+import android.util.Log;
+
+import androidx.room.Room;
+
+import com.tamagotchi.restaurantclientapplication.Application;
+import com.tamagotchi.restaurantclientapplication.BuildConfig;
+import com.tamagotchi.restaurantclientapplication.data.cache.ImageDiskCache;
+import com.tamagotchi.restaurantclientapplication.data.cache.ImageMemoryCache;
+import com.tamagotchi.restaurantclientapplication.data.db.AppDatabase;
+import com.tamagotchi.restaurantclientapplication.data.network.HttpClientFactory;
+import com.tamagotchi.restaurantclientapplication.data.network.NetworkMetrics;
 import com.tamagotchi.restaurantclientapplication.data.repositories.DishesRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.FeedbackRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.FilesRepository;
@@ -8,11 +19,58 @@ import com.tamagotchi.restaurantclientapplication.data.repositories.OrderReposit
 import com.tamagotchi.restaurantclientapplication.data.repositories.UsersRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.RestaurantsRepository;
 import com.tamagotchi.tamagotchiserverprotocol.RestaurantClient;
+import com.tamagotchi.tamagotchiserverprotocol.routers.IDishesApiService;
+import com.tamagotchi.tamagotchiserverprotocol.routers.IFilesApiService;
+import com.tamagotchi.tamagotchiserverprotocol.routers.IMenuApiService;
+import com.tamagotchi.tamagotchiserverprotocol.routers.IOrdersApiService;
+import com.tamagotchi.tamagotchiserverprotocol.routers.IRestaurantsApiService;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
 
 public class BootstrapService {
 
+    /**
+     * Доля heap, отдаваемая под кэш изображений в памяти.
+     */
+    private static final int IMAGE_MEMORY_CACHE_HEAP_FRACTION = 8;
+
+    /**
+     * Размер дискового кэша изображений.
+     */
+    private static final long IMAGE_DISK_CACHE_SIZE = 50L * 1024 * 1024;
+    private static final String IMAGE_DISK_CACHE_DIRECTORY = "images";
+
+    /**
+     * Размер HTTP кэша ответов сервера.
+     */
+    private static final long HTTP_CACHE_SIZE = 20L * 1024 * 1024;
+    private static final String HTTP_CACHE_DIRECTORY = "http";
+
+    private static final String TAG = "BootstrapService";
+
+    /**
+     * Тег logcat и файл последней трассировки запуска.
+     */
+    private static final String STARTUP_TRACE_TAG = "StartupTrace";
+    private static final String STARTUP_TRACE_FILE = "startup-trace.tsv";
+
+    /**
+     * Файл черновика заказа в каталоге файлов приложения.
+     */
+    private static final String ORDER_DRAFT_FILE = "order-draft.bin";
+
     private static BootstrapService instance;
     private static boolean isInitialized = false;
+    private volatile boolean isFirstFrameReported = false;
 
     private BootstrapService() {
 
@@ -28,30 +86,128 @@ public class BootstrapService {
 
     /**
      * Инициалиирует компоненты приложения.
+     * До первого кадра создается только то, что нужно для проверки авторизации.
+     * Остальные компоненты описываются как ленивые зависимости и создаются при первом обращении
+     * или в фоне после первого кадра (см. {@link #onFirstFrame()}).
      */
     public synchronized void InitializeApplication() {
         if (isInitialized)
             return;
 
+        StartupTracer.begin("bootstrap.authentication");
+
         RestaurantClient client = RestaurantClient.getInstance();
+        AuthenticationInfoStorageService authenticationInfoStorageService = new AuthenticationInfoStorageService();
 
         AuthenticationService.InitializeService(
                 client.getAuthenticateService(),
                 client.getAuthenticateInfoService(),
                 client.getAccountService(),
-                new AuthenticationInfoStorageService()
+                authenticationInfoStorageService
         );
 
-        OrderRepository.InitializeService(client.getOrdersApiService(), AuthenticationService.getInstance());
-        UsersRepository.InitializeService(client.getUsersService());
-        RestaurantsRepository.InitializeService(client.getRestaurantsService());
-        DishesRepository.InitializeService(client.getDishesService());
-        MenuRepository.InitializeService(client.getMenuService());
-        FilesRepository.InitializeService(client.getFilesApiService());
-        FeedbackRepository.InitializeService(client.getFeedbackApiService());
+        StartupTracer.end("bootstrap.authentication");
+        StartupTracer.begin("bootstrap.graph");
+
+        // Каталог, заказы и файлы запрашиваются через общий клиент с HTTP кэшем, пулом соединений и метриками.
+        // Заказы опрашиваются синхронизацией, через HTTP кэш неизмененный список приходит ответом 304.
+        Lazy<Retrofit> retrofit = new Lazy<>(() -> {
+            OkHttpClient httpClient = HttpClientFactory.createClient(
+                    new File(Application.get().getCacheDir(), HTTP_CACHE_DIRECTORY), HTTP_CACHE_SIZE,
+                    authenticationInfoStorageService::getToken, NetworkMetrics.getInstance());
+            return HttpClientFactory.createRetrofit(httpClient, client.getServerUrl());
+        });
+
+        Lazy<AppDatabase> database = new Lazy<>(() ->
+                Room.databaseBuilder(Application.get(), AppDatabase.class, AppDatabase.DATABASE_NAME)
+                        .fallbackToDestructiveMigration()
+                        .build());
+
+        OrderRepository.InitializeService(() -> retrofit.get().create(IOrdersApiService.class), AuthenticationService::getInstance,
+                () -> database.get().orderDao());
+        UsersRepository.InitializeService(client::getUsersService, AuthenticationService::getInstance);
+        RestaurantsRepository.InitializeService(() -> retrofit.get().create(IRestaurantsApiService.class),
+                () -> database.get().restaurantDao());
+        DishesRepository.InitializeService(() -> retrofit.get().create(IDishesApiService.class),
+                () -> database.get().dishDao());
+        MenuRepository.InitializeService(() -> retrofit.get().create(IMenuApiService.class));
+        FilesRepository.InitializeService(() -> retrofit.get().create(IFilesApiService.class),
+                () -> ImageMemoryCache.createForHeapFraction(IMAGE_MEMORY_CACHE_HEAP_FRACTION),
+                () -> new ImageDiskCache(new File(Application.get().getCacheDir(), IMAGE_DISK_CACHE_DIRECTORY), IMAGE_DISK_CACHE_SIZE));
+        FeedbackRepository.InitializeService(client::getFeedbackApiService, AuthenticationService::getInstance);
+
+        // Остальные API ходят через клиент библиотеки протокола, их запросы не измеряются.
+        NetworkMetrics.getInstance().setUnmeasured("auth", "account", "users", "feedback");
 
-        OrderManager.InitializeService(RestaurantsRepository.getInstance());
+        OrderManager.InitializeService(RestaurantsRepository::getInstance);
+        DraftOrderStorageService.InitializeService(() -> new File(Application.get().getFilesDir(), ORDER_DRAFT_FILE));
+
+        StartupTracer.end("bootstrap.graph");
 
         isInitialized = true;
     }
+
+    /**
+     * Вызывается после отрисовки первого кадра стартового экрана.
+     * Отмечает первый кадр в трассировке запуска и создает в фоне компоненты,
+     * которые понадобятся на главном экране.
+     */
+    public void onFirstFrame() {
+        if (isFirstFrameReported) {
+            return;
+        }
+        isFirstFrameReported = true;
+
+        StartupTracer.mark("first_frame");
+
+        Completable.fromAction(() -> {
+            StartupTracer.begin("bootstrap.catalogue");
+
+            RestaurantsRepository.getInstance();
+            DishesRepository.getInstance();
+            MenuRepository.getInstance();
+            FilesRepository.getInstance();
+            OrderRepository.getInstance();
+            OrderManager.getInstance();
+
+            StartupTracer.end("bootstrap.catalogue");
+        })
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {
+                }, error -> Log.e(TAG, "Can't create catalogue components", error));
+    }
+
+    /**
+     * Закончить трассировку запуска и выгрузить ее в logcat (тег StartupTrace) и в файл
+     * {@link #STARTUP_TRACE_FILE} в каталоге файлов приложения.
+     * Повторные вызовы до начала следующей трассировки ничего не делают.
+     */
+    public void dumpStartupTrace() {
+        if (!StartupTracer.finish()) {
+            return;
+        }
+
+        Completable.fromAction(() -> {
+            StringBuilder trace = new StringBuilder();
+            StartupTracer.writeTo(trace, BuildConfig.VERSION_NAME + "-" + BuildConfig.VERSION_CODE + "-" + BuildConfig.BUILD_TYPE);
+
+            for (String line : trace.toString().split("\n")) {
+                Log.i(STARTUP_TRACE_TAG, line);
+            }
+
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(getStartupTraceFile()), StandardCharsets.UTF_8)) {
+                writer.append(trace);
+            }
+        })
+                .subscribeOn(Schedulers.io())
+                .subscribe(() -> {
+                }, error -> Log.e(TAG, "Can't dump startup trace", error));
+    }
+
+    /**
+     * Файл последней трассировки запуска.
+     */
+    public File getStartupTraceFile() {
+        return new File(Application.get().getFilesDir(), STARTUP_TRACE_FILE);
+    }
 }
@@ -0,0 +1,185 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.model.OrderDraft;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Хранилище черновика заказа в небольшом двоичном файле, чтобы корзина, информация о посещении
+ * и меню выбранного ресторана пережили завершение процесса (например, во время оплаты).
+ *
+ * Запись отложенная: изменение только помечает черновик измененным, а сам черновик собирается один раз
+ * через {@link #WRITE_DELAY_MS} после первого изменения (или при {@link #flush()}) и записывается в отдельном потоке,
+ * поэтому частые изменения корзины не нагружают диск и главный поток.
+ * Методы {@link #save(Supplier)}, {@link #clear()} и {@link #flush()} вызываются из главного потока.
+ */
+public class DraftOrderStorageService {
+    private static final String TAG = "DraftOrderStorage";
+
+    /**
+     * Задержка записи после изменения черновика.
+     */
+    private static final long WRITE_DELAY_MS = 500;
+
+    /**
+     * Время, после которого черновик не восстанавливается: меню и время посещения уже неактуальны.
+     */
+    private static final long DRAFT_TIME_TO_LIVE_MS = TimeUnit.HOURS.toMillis(12);
+
+    private static volatile Lazy<DraftOrderStorageService> instance;
+    private static final Object syncInstance = new Object();
+
+    public static DraftOrderStorageService getInstance() {
+        synchronized (syncInstance) {
+            return instance != null ? instance.get() : null;
+        }
+    }
+
+    static void InitializeService(Supplier<File> file) {
+        synchronized (syncInstance) {
+            instance = new Lazy<>(() -> new DraftOrderStorageService(file.get()));
+        }
+    }
+
+    private final File file;
+
+    private final Gson gson = new Gson();
+
+    private final ExecutorService writer =
+            Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "DraftOrderWriter"));
+
+    /**
+     * Сборка черновика, ожидающего записи, null - файл нужно удалить.
+     */
+    private Supplier<OrderDraft> pendingDraft = null;
+    private boolean hasPendingChange = false;
+    private Disposable scheduledWrite = null;
+
+    private DraftOrderStorageService(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Прочитать сохраненный черновик в фоне.
+     * Устаревший или поврежденный черновик удаляется.
+     * @return черновик или пустой результат, если его нет.
+     */
+    public Maybe<OrderDraft> load() {
+        return Maybe.fromCallable(this::read).subscribeOn(Schedulers.io());
+    }
+
+    private OrderDraft read() {
+        if (!file.exists()) {
+            return null;
+        }
+
+        OrderDraft draft;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            draft = OrderDraft.readFrom(in, gson);
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Can't read order draft", e);
+            writer.execute(() -> write(null));
+            return null;
+        }
+
+        if (draft.getSavedAt() < System.currentTimeMillis() - DRAFT_TIME_TO_LIVE_MS) {
+            writer.execute(() -> write(null));
+            return null;
+        }
+
+        return draft;
+    }
+
+    /**
+     * Пометить черновик измененным. Черновик собирается в главном потоке один раз перед записью,
+     * поэтому сборка должна брать текущее состояние, а не состояние на момент вызова.
+     * @param draft сборка черновика, может вернуть null, если черновик нужно удалить.
+     */
+    public void save(Supplier<OrderDraft> draft) {
+        schedule(draft);
+    }
+
+    /**
+     * Удалить черновик, например после выхода пользователя.
+     */
+    public void clear() {
+        schedule(null);
+    }
+
+    /**
+     * Записать ожидающие изменения без задержки, например перед уходом приложения в фон.
+     */
+    public void flush() {
+        if (scheduledWrite != null) {
+            scheduledWrite.dispose();
+        }
+        writePending();
+    }
+
+    private void schedule(Supplier<OrderDraft> draft) {
+        pendingDraft = draft;
+        hasPendingChange = true;
+
+        // Уже запланированная запись соберет последний черновик.
+        if (scheduledWrite == null) {
+            scheduledWrite = AndroidSchedulers.mainThread()
+                    .scheduleDirect(this::writePending, WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writePending() {
+        scheduledWrite = null;
+        if (!hasPendingChange) {
+            return;
+        }
+
+        OrderDraft draft = pendingDraft != null ? pendingDraft.get() : null;
+        pendingDraft = null;
+        hasPendingChange = false;
+
+        writer.execute(() -> write(draft));
+    }
+
+    private void write(OrderDraft draft) {
+        if (draft == null) {
+            if (file.exists() && !file.delete()) {
+                Log.e(TAG, "Can't delete order draft");
+            }
+            return;
+        }
+
+        // Пишем во временный файл и переименовываем, чтобы не оставить обрезанный черновик.
+        File temp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            draft.writeTo(out, gson);
+        } catch (IOException e) {
+            Log.e(TAG, "Can't write order draft", e);
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.e(TAG, "Can't replace order draft");
+            temp.delete();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import android.app.Activity;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.FrameMetrics;
+import android.view.Window;
+
+/**
+ * Сбор времени кадров окна через {@link FrameMetrics}.
+ * Кадры относятся к текущему экрану, который задается через {@link #setScreen(String)}.
+ * Колбэки FrameMetrics приходят в отдельном потоке, главный поток не нагружается.
+ */
+public class FrameMetricsMonitor {
+
+    private static final String UNKNOWN_SCREEN = "unknown";
+
+    private static final FrameMetricsMonitor instance = new FrameMetricsMonitor();
+
+    private final FrameStats stats = new FrameStats();
+    private volatile String screen = UNKNOWN_SCREEN;
+
+    /**
+     * Следующий кадр первый после начала сбора. Нужен до API 26, где нет {@link FrameMetrics#FIRST_DRAW_FRAME}.
+     */
+    private volatile boolean isFirstFrame = true;
+    private Handler handler;
+
+    private final Window.OnFrameMetricsAvailableListener listener = new Window.OnFrameMetricsAvailableListener() {
+        private long frameIntervalNanos = 0;
+
+        @Override
+        public void onFrameMetricsAvailable(Window window, FrameMetrics frameMetrics, int dropCountSinceLastInvocation) {
+            String currentScreen = screen;
+            if (dropCountSinceLastInvocation > 0) {
+                stats.recordLost(currentScreen, dropCountSinceLastInvocation);
+            }
+
+            // Первый кадр окна включает создание и разметку экрана, это время запуска, а не плавность.
+            // До API 26 первый кадр окна не отмечается, поэтому пропускается первый кадр после начала сбора.
+            boolean isFirstDraw = Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                    ? frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1
+                    : isFirstFrame;
+            isFirstFrame = false;
+            if (isFirstDraw) {
+                return;
+            }
+
+            if (frameIntervalNanos == 0) {
+                // Частота обновления может быть 60, 90 или 120 Гц, порог медленного кадра зависит от нее.
+                float refreshRate = window.getWindowManager().getDefaultDisplay().getRefreshRate();
+                frameIntervalNanos = (long) (1_000_000_000L / (refreshRate > 0 ? refreshRate : 60));
+            }
+
+            stats.record(currentScreen, frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION), frameIntervalNanos);
+        }
+    };
+
+    private FrameMetricsMonitor() {
+    }
+
+    public static FrameMetricsMonitor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Начать сбор кадров окна активности. Вызывается из onResume.
+     * @param activity активность.
+     */
+    public void start(Activity activity) {
+        isFirstFrame = true;
+        activity.getWindow().addOnFrameMetricsAvailableListener(listener, getHandler());
+    }
+
+    /**
+     * Остановить сбор кадров окна активности. Вызывается из onPause.
+     * @param activity активность.
+     */
+    public void stop(Activity activity) {
+        try {
+            activity.getWindow().removeOnFrameMetricsAvailableListener(listener);
+        } catch (IllegalArgumentException ignored) {
+            // Слушатель не был добавлен.
+        }
+    }
+
+    /**
+     * Задать текущий экран, к которому относятся следующие кадры.
+     * @param screen название экрана.
+     */
+    public void setScreen(String screen) {
+        this.screen = screen;
+    }
+
+    /**
+     * Статистика кадров по экранам.
+     */
+    public FrameStats getStats() {
+        return stats;
+    }
+
+    private synchronized Handler getHandler() {
+        if (handler == null) {
+            HandlerThread thread = new HandlerThread("FrameMetrics");
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+
+        return handler;
+    }
+}
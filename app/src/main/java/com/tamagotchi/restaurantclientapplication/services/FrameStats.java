@@ -0,0 +1,108 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import com.tamagotchi.restaurantclientapplication.data.network.LatencyHistogram;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Статистика времени кадров по экранам за сессию.
+ * Кадр считается медленным, если не уложился в период обновления экрана,
+ * и замершим, если рисовался дольше {@link #FROZEN_FRAME_NANOS} (как в Android vitals).
+ * Потокобезопасен.
+ */
+public class FrameStats {
+
+    /**
+     * Порог замершего кадра.
+     */
+    static final long FROZEN_FRAME_NANOS = 700_000_000L;
+
+    private final TreeMap<String, Screen> screens = new TreeMap<>();
+
+    /**
+     * Статистика одного экрана.
+     */
+    private static class Screen {
+        private final LatencyHistogram durations = new LatencyHistogram();
+        private long slow = 0;
+        private long frozen = 0;
+        private long lost = 0;
+    }
+
+    /**
+     * Записать кадр.
+     * @param screen экран, на котором нарисован кадр.
+     * @param durationNanos полное время кадра от входного события до отправки на экран.
+     * @param frameIntervalNanos период обновления экрана.
+     */
+    public synchronized void record(String screen, long durationNanos, long frameIntervalNanos) {
+        Screen stats = getScreen(screen);
+        stats.durations.record(durationNanos / 1000);
+        if (durationNanos > frameIntervalNanos) {
+            stats.slow++;
+        }
+        if (durationNanos > FROZEN_FRAME_NANOS) {
+            stats.frozen++;
+        }
+    }
+
+    /**
+     * Учесть кадры, о которых система не сообщила (не успели обработать предыдущие).
+     * @param screen экран.
+     * @param count количество пропущенных кадров.
+     */
+    public synchronized void recordLost(String screen, int count) {
+        getScreen(screen).lost += count;
+    }
+
+    /**
+     * Записать статистику в текстовом виде, разделенном табуляцией: строка заголовка колонок
+     * и по строке на экран. Время в миллисекундах.
+     * @param out куда записать.
+     * @throws IOException ошибка записи.
+     */
+    public synchronized void writeTo(Appendable out) throws IOException {
+        out.append("screen\tframes\tslow\tslow_pct\tfrozen\tlost\tp50_ms\tp90_ms\tp95_ms\tp99_ms\tmax_ms\n");
+        for (Map.Entry<String, Screen> entry : screens.entrySet()) {
+            Screen stats = entry.getValue();
+            long frames = stats.durations.getCount();
+
+            out.append(entry.getKey())
+                    .append('\t').append(Long.toString(frames))
+                    .append('\t').append(Long.toString(stats.slow))
+                    .append('\t').append(String.format(Locale.US, "%.1f", frames == 0 ? 0.0 : stats.slow * 100.0 / frames))
+                    .append('\t').append(Long.toString(stats.frozen))
+                    .append('\t').append(Long.toString(stats.lost))
+                    .append('\t').append(formatMillis(stats.durations.getPercentile(50)))
+                    .append('\t').append(formatMillis(stats.durations.getPercentile(90)))
+                    .append('\t').append(formatMillis(stats.durations.getPercentile(95)))
+                    .append('\t').append(formatMillis(stats.durations.getPercentile(99)))
+                    .append('\t').append(formatMillis(stats.durations.getMax()))
+                    .append('\n');
+        }
+    }
+
+    /**
+     * Сбросить накопленную статистику.
+     */
+    public synchronized void reset() {
+        screens.clear();
+    }
+
+    private Screen getScreen(String screen) {
+        Screen stats = screens.get(screen);
+        if (stats == null) {
+            stats = new Screen();
+            screens.put(screen, stats);
+        }
+
+        return stats;
+    }
+
+    private static String formatMillis(long micros) {
+        return String.format(Locale.US, "%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,348 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Пространственный индекс точек на поверхности Земли для поиска ближайших объектов.
+ * Точки переводятся в единичные векторы и хранятся в k-d дереве. Расстояние по хорде
+ * монотонно связано с расстоянием по дуге большого круга, поэтому поиск корректен
+ * в том числе около полюсов и линии перемены дат.
+ * Индекс строится один раз и не изменяется.
+ *
+ * @param <T> тип индексируемых объектов.
+ */
+public class GeoIndex<T> {
+
+    /**
+     * Средний радиус Земли в метрах.
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final int DIMENSIONS = 3;
+
+    private final List<T> items;
+
+    /**
+     * Координаты единичных векторов объектов: x, y, z для каждого объекта.
+     */
+    private final double[] points;
+
+    /**
+     * Неявное k-d дерево: индексы объектов, узел поддерева [lo, hi) находится в середине.
+     */
+    private final int[] tree;
+
+    /**
+     * Построить индекс.
+     * @param items индексируемые объекты.
+     * @param latitude получение широты объекта в градусах.
+     * @param longitude получение долготы объекта в градусах.
+     */
+    public GeoIndex(List<T> items, ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude) {
+        this.items = new ArrayList<>(items);
+        int size = this.items.size();
+
+        points = new double[size * DIMENSIONS];
+        tree = new int[size];
+        for (int i = 0; i < size; i++) {
+            T item = this.items.get(i);
+            toUnitVector(latitude.applyAsDouble(item), longitude.applyAsDouble(item), points, i * DIMENSIONS);
+            tree[i] = i;
+        }
+
+        build(0, size, 0);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Найти ближайший объект.
+     * @param latitude широта точки поиска в градусах.
+     * @param longitude долгота точки поиска в градусах.
+     * @return ближайший объект или null, если индекс пуст.
+     */
+    public T nearest(double latitude, double longitude) {
+        List<T> result = nearest(latitude, longitude, 1);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Найти k ближайших объектов.
+     * @param latitude широта точки поиска в градусах.
+     * @param longitude долгота точки поиска в градусах.
+     * @param k количество объектов.
+     * @return объекты в порядке возрастания расстояния.
+     */
+    public List<T> nearest(double latitude, double longitude, int k) {
+        int count = Math.min(k, items.size());
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+
+        double[] query = new double[DIMENSIONS];
+        toUnitVector(latitude, longitude, query, 0);
+
+        NearestHeap heap = new NearestHeap(count);
+        searchNearest(query, 0, items.size(), 0, heap);
+
+        return heap.toSortedList();
+    }
+
+    /**
+     * Найти объекты в радиусе от точки.
+     * @param latitude широта точки поиска в градусах.
+     * @param longitude долгота точки поиска в градусах.
+     * @param radiusMeters радиус в метрах.
+     * @return объекты в порядке возрастания расстояния.
+     */
+    public List<T> withinRadius(double latitude, double longitude, double radiusMeters) {
+        if (items.isEmpty() || radiusMeters < 0) {
+            return Collections.emptyList();
+        }
+
+        double[] query = new double[DIMENSIONS];
+        toUnitVector(latitude, longitude, query, 0);
+
+        // Радиус больше половины окружности покрывает всю сферу.
+        double angle = Math.min(radiusMeters / EARTH_RADIUS_METERS, Math.PI);
+        double chord = 2 * Math.sin(angle / 2);
+
+        NearestHeap found = new NearestHeap(items.size());
+        searchRadius(query, chord * chord, 0, items.size(), 0, found);
+
+        return found.toSortedList();
+    }
+
+    /**
+     * Расстояние по дуге большого круга (формула гаверсинусов).
+     * @return расстояние в метрах.
+     */
+    public static double distanceMeters(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double phi1 = Math.toRadians(latitude1);
+        double phi2 = Math.toRadians(latitude2);
+        double sinHalfDeltaPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDeltaLambda = Math.sin(Math.toRadians(longitude2 - longitude1) / 2);
+
+        double a = sinHalfDeltaPhi * sinHalfDeltaPhi
+                + Math.cos(phi1) * Math.cos(phi2) * sinHalfDeltaLambda * sinHalfDeltaLambda;
+
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void toUnitVector(double latitude, double longitude, double[] target, int offset) {
+        double phi = Math.toRadians(latitude);
+        double lambda = Math.toRadians(longitude);
+        double cosPhi = Math.cos(phi);
+
+        target[offset] = cosPhi * Math.cos(lambda);
+        target[offset + 1] = cosPhi * Math.sin(lambda);
+        target[offset + 2] = Math.sin(phi);
+    }
+
+    private void build(int lo, int hi, int axis) {
+        if (hi - lo <= 1) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+
+        int nextAxis = (axis + 1) % DIMENSIONS;
+        build(lo, mid, nextAxis);
+        build(mid + 1, hi, nextAxis);
+    }
+
+    /**
+     * Частичная сортировка (quickselect): после вызова в позиции k находится медиана по оси.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate(tree[(left + right) >>> 1], axis);
+            int i = left;
+            int j = right;
+
+            while (i <= j) {
+                while (coordinate(tree[i], axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(tree[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = tree[i];
+                    tree[i] = tree[j];
+                    tree[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int item, int axis) {
+        return points[item * DIMENSIONS + axis];
+    }
+
+    private double squaredDistance(double[] query, int item) {
+        int offset = item * DIMENSIONS;
+        double dx = query[0] - points[offset];
+        double dy = query[1] - points[offset + 1];
+        double dz = query[2] - points[offset + 2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private void searchNearest(double[] query, int lo, int hi, int axis, NearestHeap heap) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int item = tree[mid];
+        heap.offer(item, squaredDistance(query, item));
+
+        double delta = query[axis] - coordinate(item, axis);
+        int nextAxis = (axis + 1) % DIMENSIONS;
+
+        if (delta < 0) {
+            searchNearest(query, lo, mid, nextAxis, heap);
+            if (delta * delta < heap.worstDistance()) {
+                searchNearest(query, mid + 1, hi, nextAxis, heap);
+            }
+        } else {
+            searchNearest(query, mid + 1, hi, nextAxis, heap);
+            if (delta * delta < heap.worstDistance()) {
+                searchNearest(query, lo, mid, nextAxis, heap);
+            }
+        }
+    }
+
+    private void searchRadius(double[] query, double squaredRadius, int lo, int hi, int axis, NearestHeap found) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        int item = tree[mid];
+        double distance = squaredDistance(query, item);
+        if (distance <= squaredRadius) {
+            found.offer(item, distance);
+        }
+
+        double delta = query[axis] - coordinate(item, axis);
+        int nextAxis = (axis + 1) % DIMENSIONS;
+
+        if (delta <= 0 || delta * delta <= squaredRadius) {
+            searchRadius(query, squaredRadius, lo, mid, nextAxis, found);
+        }
+        if (delta >= 0 || delta * delta <= squaredRadius) {
+            searchRadius(query, squaredRadius, mid + 1, hi, nextAxis, found);
+        }
+    }
+
+    /**
+     * Ограниченная max-куча найденных объектов на примитивных массивах.
+     */
+    private class NearestHeap {
+        private final int[] heapItems;
+        private final double[] heapDistances;
+        private int size;
+
+        NearestHeap(int capacity) {
+            heapItems = new int[capacity];
+            heapDistances = new double[capacity];
+        }
+
+        double worstDistance() {
+            return size < heapItems.length ? Double.POSITIVE_INFINITY : heapDistances[0];
+        }
+
+        void offer(int item, double distance) {
+            if (size < heapItems.length) {
+                int i = size++;
+                heapItems[i] = item;
+                heapDistances[i] = distance;
+                siftUp(i);
+            } else if (distance < heapDistances[0]) {
+                heapItems[0] = item;
+                heapDistances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        List<T> toSortedList() {
+            // Извлекаем максимумы с конца, получая порядок по возрастанию расстояния.
+            Object[] sorted = new Object[size];
+            while (size > 0) {
+                sorted[size - 1] = items.get(heapItems[0]);
+                size--;
+                heapItems[0] = heapItems[size];
+                heapDistances[0] = heapDistances[size];
+                siftDown(0);
+            }
+
+            List<T> result = new ArrayList<>(sorted.length);
+            for (Object item : sorted) {
+                @SuppressWarnings("unchecked")
+                T typed = (T) item;
+                result.add(typed);
+            }
+
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (heapDistances[parent] >= heapDistances[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                int right = left + 1;
+                int largest = i;
+
+                if (left < size && heapDistances[left] > heapDistances[largest]) {
+                    largest = left;
+                }
+                if (right < size && heapDistances[right] > heapDistances[largest]) {
+                    largest = right;
+                }
+                if (largest == i) {
+                    return;
+                }
+
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int first, int second) {
+            int item = heapItems[first];
+            heapItems[first] = heapItems[second];
+            heapItems[second] = item;
+
+            double distance = heapDistances[first];
+            heapDistances[first] = heapDistances[second];
+            heapDistances[second] = distance;
+        }
+    }
+}
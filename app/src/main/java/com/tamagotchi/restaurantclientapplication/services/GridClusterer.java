@@ -0,0 +1,220 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Кластеризация точек на карте по сетке экранных ячеек.
+ * Размер ячейки задается в пикселях карты (проекция Web Mercator), поэтому при отдалении
+ * в одну ячейку попадает больше точек. Кластеризуются только точки видимой области.
+ *
+ * @param <T> тип объектов на карте.
+ */
+public class GridClusterer<T> {
+
+    /**
+     * Размер тайла карты в пикселях на нулевом уровне приближения.
+     */
+    private static final double TILE_SIZE = 256;
+
+    /**
+     * Максимальная широта, отображаемая в проекции Web Mercator.
+     */
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final ToDoubleFunction<T> latitude;
+    private final ToDoubleFunction<T> longitude;
+    private final ToIntFunction<T> id;
+    private final double cellSizePx;
+    private final int maxClusterZoom;
+
+    /**
+     * Кластер объектов. Кластер из одного объекта соответствует самому объекту.
+     */
+    public static class Cluster<T> {
+        private final String key;
+        private final List<T> items;
+        private final double latitude;
+        private final double longitude;
+
+        Cluster(String key, List<T> items, double latitude, double longitude) {
+            this.key = key;
+            this.items = items;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+
+        /**
+         * Ключ кластера. Ключ одиночного объекта зависит только от его id,
+         * ключ группы - от ячейки и уровня приближения.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public boolean isSingle() {
+            return items.size() == 1;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double getLongitude() {
+            return longitude;
+        }
+    }
+
+    /**
+     * Создает кластеризатор.
+     * @param latitude получение широты объекта.
+     * @param longitude получение долготы объекта.
+     * @param id получение id объекта.
+     * @param cellSizePx размер ячейки сетки в пикселях карты.
+     * @param maxClusterZoom уровень приближения, начиная с которого объекты не группируются.
+     */
+    public GridClusterer(ToDoubleFunction<T> latitude, ToDoubleFunction<T> longitude, ToIntFunction<T> id,
+                         double cellSizePx, int maxClusterZoom) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.id = id;
+        this.cellSizePx = cellSizePx;
+        this.maxClusterZoom = maxClusterZoom;
+    }
+
+    /**
+     * Ключ одиночного объекта.
+     * @param itemId id объекта.
+     * @return ключ, совпадающий с ключом кластера из этого объекта.
+     */
+    public static String singleKey(int itemId) {
+        return "item:" + itemId;
+    }
+
+    /**
+     * Сгруппировать объекты видимой области.
+     * @param items все объекты.
+     * @param zoom текущий уровень приближения.
+     * @param south южная граница видимой области.
+     * @param west западная граница видимой области.
+     * @param north северная граница видимой области.
+     * @param east восточная граница видимой области (может быть меньше west при пересечении линии перемены дат).
+     * @return кластеры видимых объектов.
+     */
+    public List<Cluster<T>> cluster(List<T> items, float zoom, double south, double west, double north, double east) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int gridZoom = (int) Math.floor(zoom);
+        double cellsPerWorld = TILE_SIZE * Math.pow(2, gridZoom) / cellSizePx;
+        boolean clustering = gridZoom < maxClusterZoom;
+
+        Map<Long, List<T>> cells = new HashMap<>();
+        List<Cluster<T>> clusters = new ArrayList<>();
+
+        for (T item : items) {
+            double itemLatitude = latitude.applyAsDouble(item);
+            double itemLongitude = longitude.applyAsDouble(item);
+
+            if (!isVisible(itemLatitude, itemLongitude, south, west, north, east)) {
+                continue;
+            }
+
+            if (!clustering) {
+                clusters.add(single(item, itemLatitude, itemLongitude));
+                continue;
+            }
+
+            long cellX = (long) Math.floor(mercatorX(itemLongitude) * cellsPerWorld);
+            long cellY = (long) Math.floor(mercatorY(itemLatitude) * cellsPerWorld);
+            long cell = (cellX << 32) | (cellY & 0xffffffffL);
+
+            List<T> cellItems = cells.get(cell);
+            if (cellItems == null) {
+                cellItems = new ArrayList<>();
+                cells.put(cell, cellItems);
+            }
+            cellItems.add(item);
+        }
+
+        for (Map.Entry<Long, List<T>> cell : cells.entrySet()) {
+            List<T> cellItems = cell.getValue();
+            if (cellItems.size() == 1) {
+                T item = cellItems.get(0);
+                clusters.add(single(item, latitude.applyAsDouble(item), longitude.applyAsDouble(item)));
+                continue;
+            }
+
+            // Центр кластера - среднее положение его объектов.
+            // Долгота усредняется по смещениям от первого объекта, чтобы кластер у линии перемены дат
+            // не оказался на другой стороне карты.
+            double baseLongitude = longitude.applyAsDouble(cellItems.get(0));
+            double sumLatitude = 0;
+            double sumLongitudeOffset = 0;
+            for (T item : cellItems) {
+                sumLatitude += latitude.applyAsDouble(item);
+                sumLongitudeOffset += wrapLongitude(longitude.applyAsDouble(item) - baseLongitude);
+            }
+
+            String key = "cluster:" + gridZoom + ":" + (cell.getKey() >> 32) + ":" + (int) (long) cell.getKey();
+            clusters.add(new Cluster<>(key, cellItems,
+                    sumLatitude / cellItems.size(), wrapLongitude(baseLongitude + sumLongitudeOffset / cellItems.size())));
+        }
+
+        return clusters;
+    }
+
+    private Cluster<T> single(T item, double itemLatitude, double itemLongitude) {
+        return new Cluster<>(singleKey(id.applyAsInt(item)), Collections.singletonList(item), itemLatitude, itemLongitude);
+    }
+
+    private static boolean isVisible(double itemLatitude, double itemLongitude,
+                                     double south, double west, double north, double east) {
+        if (itemLatitude < south || itemLatitude > north) {
+            return false;
+        }
+
+        if (west <= east) {
+            return itemLongitude >= west && itemLongitude <= east;
+        }
+
+        // Видимая область пересекает линию перемены дат.
+        return itemLongitude >= west || itemLongitude <= east;
+    }
+
+    /**
+     * Привести долготу к диапазону [-180, 180].
+     */
+    private static double wrapLongitude(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+
+        return longitude;
+    }
+
+    private static double mercatorX(double longitude) {
+        // Долготы 180 и -180 - один меридиан, он относится к первой ячейке.
+        return ((longitude + 180) / 360) % 1;
+    }
+
+    private static double mercatorY(double latitude) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sinLatitude = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sinLatitude) / (1 - sinLatitude)) / (4 * Math.PI);
+    }
+}
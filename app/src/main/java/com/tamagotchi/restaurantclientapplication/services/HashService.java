@@ -0,0 +1,102 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Вычисление хэшей MD5.
+ * Экземпляр MessageDigest создается один раз на поток и переиспользуется,
+ * строки кодируются в UTF-8 независимо от кодировки платформы.
+ */
+public final class HashService {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Размер буфера при чтении потока.
+     */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> newDigest("MD5"));
+
+    private HashService() {
+    }
+
+    /**
+     * Получить MD5 хэш строки в кодировке UTF-8.
+     * @param text строка.
+     * @return хэш в виде 32 шестнадцатеричных символов в нижнем регистре.
+     */
+    public static String md5Hex(String text) {
+        MessageDigest digest = MD5_DIGEST.get();
+        digest.reset();
+        return toHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Получить MD5 хэш данных потока. Поток читается до конца частями, целиком в память не загружается.
+     * Поток не закрывается.
+     * @param input поток данных.
+     * @return хэш в виде 32 шестнадцатеричных символов в нижнем регистре.
+     * @throws IOException ошибка чтения потока.
+     */
+    public static String md5Hex(InputStream input) throws IOException {
+        return toHex(md5(input));
+    }
+
+    /**
+     * Получить MD5 хэш данных потока. Поток не закрывается.
+     * @param input поток данных.
+     * @return хэш (16 байт).
+     * @throws IOException ошибка чтения потока.
+     */
+    public static byte[] md5(InputStream input) throws IOException {
+        MessageDigest digest = MD5_DIGEST.get();
+        digest.reset();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * Создать новый экземпляр MD5 для пошагового вычисления хэша,
+     * например для использования в {@link java.security.DigestOutputStream}.
+     * @return MessageDigest MD5.
+     */
+    public static MessageDigest newMd5() {
+        return newDigest("MD5");
+    }
+
+    /**
+     * Представить байты в виде шестнадцатеричной строки в нижнем регистре.
+     * @param bytes байты.
+     * @return строка длиной в два раза больше количества байт.
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & 0xFF;
+            hex[i * 2] = HEX_DIGITS[value >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[value & 0x0F];
+        }
+
+        return new String(hex);
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            // MD5 обязателен для всех реализаций Java и Android.
+            throw new IllegalStateException("Hash algorithm is not supported: " + algorithm, e);
+        }
+    }
+}
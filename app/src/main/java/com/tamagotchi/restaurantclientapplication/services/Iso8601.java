@@ -0,0 +1,245 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.text.ParseException;
+
+/**
+ * Разбор и форматирование времени в формате ISO 8601 / RFC 3339,
+ * например "2020-06-01T18:30:00.000+03:00" или "2020-06-01T15:30:00Z".
+ * Строка разбирается посимвольно сразу в миллисекунды от начала эпохи, без промежуточных объектов.
+ */
+public final class Iso8601 {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    private Iso8601() {
+    }
+
+    /**
+     * Разобрать время.
+     * Формат: yyyy-MM-dd'T'HH:mm[:ss[.fraction]](Z|±hh:mm|±hhmm).
+     * Дробная часть может содержать до 9 цифр, учитываются миллисекунды.
+     * @param text строка со временем.
+     * @return миллисекунды от начала эпохи (UTC).
+     * @throws ParseException если строка не соответствует формату.
+     */
+    public static long parse(CharSequence text) throws ParseException {
+        int length = text.length();
+
+        int year = readDigits(text, 0, 4);
+        expect(text, 4, '-');
+        int month = readDigits(text, 5, 2);
+        expect(text, 7, '-');
+        int day = readDigits(text, 8, 2);
+
+        if (length <= 10 || (text.charAt(10) != 'T' && text.charAt(10) != 't' && text.charAt(10) != ' ')) {
+            throw new ParseException("Expected time separator", 10);
+        }
+
+        int hour = readDigits(text, 11, 2);
+        expect(text, 13, ':');
+        int minute = readDigits(text, 14, 2);
+
+        int position = 16;
+        int second = 0;
+        int millis = 0;
+
+        if (position < length && text.charAt(position) == ':') {
+            second = readDigits(text, position + 1, 2);
+            position += 3;
+
+            if (position < length && (text.charAt(position) == '.' || text.charAt(position) == ',')) {
+                position++;
+                int fractionStart = position;
+                while (position < length && isDigit(text.charAt(position))) {
+                    // Учитываем только первые три цифры, остальные только пропускаем.
+                    if (position - fractionStart < 3) {
+                        millis = millis * 10 + (text.charAt(position) - '0');
+                    }
+                    position++;
+                }
+
+                int fractionLength = position - fractionStart;
+                if (fractionLength == 0 || fractionLength > 9) {
+                    throw new ParseException("Invalid fraction of second", fractionStart);
+                }
+
+                for (int i = fractionLength; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            throw new ParseException("Field out of range: " + text, 0);
+        }
+
+        if (position >= length) {
+            throw new ParseException("Expected time zone offset", position);
+        }
+
+        long offsetMillis;
+        char sign = text.charAt(position);
+        if (sign == 'Z' || sign == 'z') {
+            offsetMillis = 0;
+            position++;
+        } else if (sign == '+' || sign == '-') {
+            int offsetHours = readDigits(text, position + 1, 2);
+            position += 3;
+
+            if (position < length && text.charAt(position) == ':') {
+                position++;
+            }
+
+            int offsetMinutes = readDigits(text, position, 2);
+            position += 2;
+
+            if (offsetHours > 18 || offsetMinutes > 59) {
+                throw new ParseException("Time zone offset out of range", position);
+            }
+
+            offsetMillis = offsetHours * MILLIS_PER_HOUR + offsetMinutes * MILLIS_PER_MINUTE;
+            if (sign == '-') {
+                offsetMillis = -offsetMillis;
+            }
+        } else {
+            throw new ParseException("Expected time zone offset", position);
+        }
+
+        if (position != length) {
+            throw new ParseException("Unexpected characters after time", position);
+        }
+
+        return daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + hour * MILLIS_PER_HOUR
+                + minute * MILLIS_PER_MINUTE
+                + second * MILLIS_PER_SECOND
+                + millis
+                - offsetMillis;
+    }
+
+    /**
+     * Форматировать время в виде yyyy-MM-dd'T'HH:mm:ss.SSS с указанием смещения часового пояса.
+     * Нулевое смещение записывается как "Z", как и в SimpleDateFormat с шаблоном XXX.
+     * @param epochMillis миллисекунды от начала эпохи (UTC).
+     * @param offsetMillis смещение часового пояса, с точностью до минуты.
+     * @return строка со временем.
+     */
+    public static String format(long epochMillis, int offsetMillis) {
+        long local = epochMillis + offsetMillis;
+        long days = Math.floorDiv(local, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(local, MILLIS_PER_DAY);
+
+        StringBuilder builder = new StringBuilder(29);
+        appendDate(builder, days);
+        builder.append('T');
+        appendPadded(builder, (int) (millisOfDay / MILLIS_PER_HOUR), 2);
+        builder.append(':');
+        appendPadded(builder, (int) (millisOfDay / MILLIS_PER_MINUTE % 60), 2);
+        builder.append(':');
+        appendPadded(builder, (int) (millisOfDay / MILLIS_PER_SECOND % 60), 2);
+        builder.append('.');
+        appendPadded(builder, (int) (millisOfDay % MILLIS_PER_SECOND), 3);
+
+        int offsetMinutes = offsetMillis / (int) MILLIS_PER_MINUTE;
+        if (offsetMinutes == 0) {
+            builder.append('Z');
+        } else {
+            builder.append(offsetMinutes < 0 ? '-' : '+');
+            offsetMinutes = Math.abs(offsetMinutes);
+            appendPadded(builder, offsetMinutes / 60, 2);
+            builder.append(':');
+            appendPadded(builder, offsetMinutes % 60, 2);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Количество дней от 1970-01-01 до указанной даты пролептического григорианского календаря.
+     * Алгоритм days_from_civil (H. Hinnant).
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * Записать дату по количеству дней от 1970-01-01. Обратное преобразование к daysFromCivil.
+     */
+    private static void appendDate(StringBuilder builder, long days) {
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        appendPadded(builder, year, 4);
+        builder.append('-');
+        appendPadded(builder, month, 2);
+        builder.append('-');
+        appendPadded(builder, day, 2);
+    }
+
+    private static void appendPadded(StringBuilder builder, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) {
+                builder.append('0');
+            }
+        }
+        builder.append(value);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean isLeap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return isLeap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int readDigits(CharSequence text, int position, int count) throws ParseException {
+        if (position + count > text.length()) {
+            throw new ParseException("Unexpected end of time", text.length());
+        }
+
+        int value = 0;
+        for (int i = position; i < position + count; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                throw new ParseException("Expected digit", i);
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private static void expect(CharSequence text, int position, char expected) throws ParseException {
+        if (position >= text.length() || text.charAt(position) != expected) {
+            throw new ParseException("Expected '" + expected + "'", position);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,51 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.util.function.Supplier;
+
+/**
+ * Значение, которое создается при первом обращении и затем переиспользуется.
+ * Потокобезопасно: фабрика вызывается не более одного раза.
+ *
+ * @param <T> тип значения.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private Supplier<? extends T> factory;
+    private volatile T value;
+
+    public Lazy(Supplier<? extends T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Получить значение, при первом обращении значение создается.
+     * @return значение.
+     */
+    @Override
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = factory.get();
+                    if (result == null) {
+                        throw new IllegalStateException("Lazy factory returned null");
+                    }
+                    value = result;
+                    // Фабрика больше не нужна, освобождаем захваченные ей объекты.
+                    factory = null;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Было ли значение уже создано.
+     */
+    public boolean isInitialized() {
+        return value != null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.MenuItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сборка полного меню ресторана из элементов меню и блюд.
+ */
+public class MenuAssembler {
+
+    /**
+     * Получить id блюд, необходимых для сборки меню (без повторов).
+     * @param menu элементы меню ресторана.
+     * @return id блюд в порядке появления в меню.
+     */
+    public static Collection<Integer> collectDishIds(List<MenuItem> menu) {
+        LinkedHashSet<Integer> dishIds = new LinkedHashSet<>();
+        for (MenuItem menuItem : menu) {
+            dishIds.add(menuItem.getDishId());
+        }
+
+        return dishIds;
+    }
+
+    /**
+     * Собрать полное меню. Порядок элементов меню сохраняется,
+     * элементы, для которых блюдо не было получено, пропускаются.
+     * @param menu элементы меню ресторана.
+     * @param dishes блюда по id.
+     * @return полное меню.
+     */
+    public static List<FullMenuItem> assemble(List<MenuItem> menu, Map<Integer, DishModel> dishes) {
+        List<FullMenuItem> fullMenu = new ArrayList<>(menu.size());
+        for (MenuItem menuItem : menu) {
+            DishModel dish = dishes.get(menuItem.getDishId());
+            if (dish != null) {
+                fullMenu.add(new FullMenuItem(menuItem, dish));
+            }
+        }
+
+        return fullMenu;
+    }
+}
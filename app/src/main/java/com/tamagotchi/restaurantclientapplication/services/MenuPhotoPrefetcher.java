@@ -0,0 +1,88 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import android.content.res.Resources;
+import android.util.Log;
+
+import com.tamagotchi.restaurantclientapplication.R;
+import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.restaurantclientapplication.data.repositories.FilesRepository;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Предварительная загрузка фотографий блюд, которые будут видны при открытии меню.
+ * Фотографии загружаются по одной в фоновом потоке с низким приоритетом
+ * и в том же размере, что и в MenuFragment, поэтому меню берет их из кэша в памяти.
+ */
+public class MenuPhotoPrefetcher {
+    private static final String TAG = "MenuPhotoPrefetcher";
+
+    /**
+     * Поток с минимальным приоритетом, чтобы загрузка не мешала отрисовке интерфейса.
+     */
+    private static final Scheduler PREFETCH_SCHEDULER = Schedulers.from(Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, TAG);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    }));
+
+    private final FilesRepository filesRepository;
+
+    /**
+     * Размер фотографии блюда в меню в пикселях.
+     */
+    private final int photoSize;
+
+    /**
+     * Количество первых элементов меню, фотографии которых загружаются.
+     */
+    private final int prefetchCount;
+
+    public MenuPhotoPrefetcher(FilesRepository filesRepository, int photoSize, int prefetchCount) {
+        this.filesRepository = filesRepository;
+        this.photoSize = photoSize;
+        this.prefetchCount = prefetchCount;
+    }
+
+    /**
+     * Создать загрузчик для первого экрана меню.
+     * Количество элементов оценивается по высоте экрана и размеру фотографии блюда (элемент не ниже фотографии).
+     * @param filesRepository репозиторий файлов.
+     * @param resources ресурсы приложения.
+     * @return загрузчик фотографий.
+     */
+    public static MenuPhotoPrefetcher forFirstScreen(FilesRepository filesRepository, Resources resources) {
+        int photoSize = resources.getDimensionPixelSize(R.dimen.menu_item_photo_size);
+        int screenHeight = resources.getDisplayMetrics().heightPixels;
+
+        return new MenuPhotoPrefetcher(filesRepository, photoSize, screenHeight / photoSize + 1);
+    }
+
+    /**
+     * Загрузить фотографии первых элементов меню.
+     * Ошибки загрузки пропускаются, отписка останавливает загрузку оставшихся фотографий.
+     * @param menu меню ресторана.
+     * @return завершается после загрузки всех фотографий.
+     */
+    public Completable prefetch(List<FullMenuItem> menu) {
+        List<FullMenuItem> firstScreen = menu.subList(0, Math.min(prefetchCount, menu.size()));
+
+        return Observable.fromIterable(firstScreen)
+                .filter(menuItem -> !menuItem.getDish().getPhotos().isEmpty())
+                .concatMapCompletable(menuItem ->
+                        filesRepository.getImageById(menuItem.getDish().getPhotos().get(0), photoSize, photoSize)
+                                .ignoreElement()
+                                .onErrorComplete(error -> {
+                                    Log.w(TAG, "Can't prefetch photo of menu item " + menuItem.getId(), error);
+                                    return true;
+                                }))
+                .subscribeOn(PREFETCH_SCHEDULER);
+    }
+}
@@ -7,24 +7,26 @@ import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
 import io.reactivex.rxjava3.subjects.BehaviorSubject;
 
 public class OrderManager {
 
-    private static volatile OrderManager instance;
+    private static volatile Lazy<OrderManager> instance;
     private static final Object syncInstance = new Object();
 
     public static OrderManager getInstance() {
         synchronized (syncInstance) {
-            return instance;
+            return instance != null ? instance.get() : null;
         }
     }
 
-    static void InitializeService(RestaurantsRepository restaurantsRepository) {
+    static void InitializeService(Supplier<RestaurantsRepository> restaurantsRepository) {
         synchronized (syncInstance) {
-            instance = new OrderManager(restaurantsRepository);
+            instance = new Lazy<>(() -> new OrderManager(restaurantsRepository.get()));
         }
     }
 
@@ -54,6 +56,7 @@ public class OrderManager {
     private BehaviorSubject<OrderVisitInfo> orderVisitInfoSubject;
 
     private OrderManager(RestaurantsRepository restaurantsRepository) {
+        this.restaurantsRepository = restaurantsRepository;
         selectedRestaurantSubject = BehaviorSubject.create();
         orderMenuSubject = BehaviorSubject.create();
         orderVisitInfoSubject = BehaviorSubject.create();
@@ -75,11 +78,13 @@ public class OrderManager {
      */
     public void setSelectedRestaurant(int restaurantId) {
 
-        restaurantsRepository.getRestaurantById(restaurantId).subscribe(restaurant -> {
-            selectedRestaurantSubject.onNext(restaurant);
-        }, error -> {
-            selectedRestaurantSubject.onError(error);
-        });
+        restaurantsRepository.getRestaurantById(restaurantId)
+                .subscribeOn(Schedulers.io())
+                .subscribe(restaurant -> {
+                    selectedRestaurantSubject.onNext(restaurant);
+                }, error -> {
+                    selectedRestaurantSubject.onError(error);
+                });
     }
 
     /**
@@ -0,0 +1,253 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import android.util.Log;
+
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.model.OrdersUpdate;
+import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.enums.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
+/**
+ * Синхронизация заказов пользователя.
+ * Заказы периодически запрашиваются с сервера и объединяются по id с локальным хранилищем,
+ * подписчики получают только изменения: какие заказы изменились и изменился ли состав списка.
+ * Опрос идет, только пока есть активные заказы, и реже, пока заказы не меняются.
+ * Запрос заказов перепроверяется по ETag (см. CacheControlInterceptor), поэтому неизмененный список
+ * приходит ответом 304 без тела.
+ */
+public class OrderSyncService {
+    private static final String TAG = "OrderSyncService";
+
+    /**
+     * Период опроса сервера после изменения заказов.
+     */
+    private static final long MIN_POLL_INTERVAL_SECONDS = 15;
+
+    /**
+     * Максимальный период опроса: без изменений период удваивается до этого значения.
+     */
+    private static final long MAX_POLL_INTERVAL_SECONDS = 120;
+
+    /**
+     * Статусы заказов, которые еще могут измениться. Заказы в остальных статусах завершены.
+     */
+    private static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.of(
+            OrderStatus.PaymentMadeing, OrderStatus.Confirmed, OrderStatus.Preparing, OrderStatus.Prepared);
+
+    /**
+     * Источник заказов: сервер и локальная база.
+     */
+    public interface OrdersSource {
+        /**
+         * Получить заказы пользователя с сервера.
+         */
+        Single<List<OrderModel>> getUserOrders(int userId);
+
+        /**
+         * Получить заказы пользователя, сохраненные локально.
+         */
+        Single<List<OrderModel>> getStoredOrders(int userId);
+
+        /**
+         * Сохранить заказы пользователя локально вместо ранее сохраненных.
+         */
+        Completable saveOrders(int userId, List<OrderModel> orders);
+    }
+
+    private final OrdersSource orderRepository;
+
+    /**
+     * Планировщик задержки между опросами.
+     */
+    private final Scheduler scheduler;
+
+    private final Gson gson = new Gson();
+
+    /**
+     * Заказы последней синхронизации в порядке сервера.
+     */
+    private List<OrderModel> orders = new ArrayList<>();
+
+    /**
+     * Сериализованное содержимое заказов по id для сравнения с новыми данными.
+     */
+    private Map<Integer, String> fingerprints = new HashMap<>();
+
+    /**
+     * Пользователь, заказы которого находятся в хранилище.
+     */
+    private Integer userId = null;
+
+    public OrderSyncService(OrdersSource orderRepository) {
+        this(orderRepository, Schedulers.io());
+    }
+
+    OrderSyncService(OrdersSource orderRepository, Scheduler scheduler) {
+        this.orderRepository = orderRepository;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Синхронизировать заказы пользователя, пока есть подписка.
+     * Сначала сразу возвращаются сохраненные заказы (из памяти или из локальной базы, если они есть),
+     * затем изменения после каждого опроса.
+     * Опросы без изменений ничего не возвращают, ошибки опроса пропускаются до следующего опроса.
+     * Первый опрос выполняется сразу, период следующих растет от {@link #MIN_POLL_INTERVAL_SECONDS}
+     * до {@link #MAX_POLL_INTERVAL_SECONDS}, пока заказы не меняются или опрос завершается ошибкой.
+     * Если после успешного опроса активных заказов нет, то опрос прекращается и Observable завершается.
+     * @param userId id пользователя.
+     * @return изменения заказов.
+     */
+    public Observable<OrdersUpdate> sync(int userId) {
+        return Observable.defer(() -> {
+            PollSchedule schedule = new PollSchedule();
+
+            Observable<OrdersUpdate> updates = Single.defer(() -> orderRepository.getUserOrders(userId)
+                    .delaySubscription(schedule.delaySeconds, TimeUnit.SECONDS, scheduler))
+                    .map(received -> merge(userId, received))
+                    .doOnSuccess(schedule::onPolled)
+                    .onErrorReturn(error -> {
+                        Log.w(TAG, "Can't sync orders", error);
+                        schedule.onFailed();
+                        return new OrdersUpdate(new ArrayList<>(), new HashSet<>(), false);
+                    })
+                    .toObservable()
+                    .repeatUntil(() -> !schedule.isFailed && !hasActiveOrders())
+                    .filter(update -> !update.isEmpty())
+                    .doOnNext(update -> save(userId, update.getOrders()));
+
+            OrdersUpdate stored = getStored(userId);
+            if (stored != null) {
+                return updates.startWithItem(stored);
+            }
+
+            return updates.startWith(orderRepository.getStoredOrders(userId)
+                    .onErrorReturn(error -> {
+                        Log.e(TAG, "Can't read saved orders", error);
+                        return new ArrayList<>();
+                    })
+                    .filter(saved -> !saved.isEmpty())
+                    .map(saved -> restore(userId, saved)));
+        });
+    }
+
+    /**
+     * Период опроса одной подписки.
+     */
+    private static class PollSchedule {
+        private long delaySeconds = 0;
+        private boolean isFailed = false;
+
+        void onPolled(OrdersUpdate update) {
+            isFailed = false;
+            delaySeconds = update.isEmpty() ? nextDelay(delaySeconds) : MIN_POLL_INTERVAL_SECONDS;
+        }
+
+        void onFailed() {
+            isFailed = true;
+            delaySeconds = nextDelay(delaySeconds);
+        }
+
+        private static long nextDelay(long delaySeconds) {
+            return Math.min(Math.max(delaySeconds * 2, MIN_POLL_INTERVAL_SECONDS), MAX_POLL_INTERVAL_SECONDS);
+        }
+    }
+
+    /**
+     * Есть ли в хранилище заказы, статус которых еще может измениться.
+     */
+    private synchronized boolean hasActiveOrders() {
+        for (OrderModel order : orders) {
+            if (order.getOrderStatus() == null || ACTIVE_STATUSES.contains(order.getOrderStatus())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private synchronized OrdersUpdate getStored(int userId) {
+        if (this.userId == null || this.userId != userId || orders.isEmpty()) {
+            return null;
+        }
+
+        return new OrdersUpdate(orders, new HashSet<>(), true);
+    }
+
+    /**
+     * Восстановить хранилище из заказов, сохраненных в локальной базе.
+     */
+    private synchronized OrdersUpdate restore(int userId, List<OrderModel> saved) {
+        this.userId = userId;
+        orders = new ArrayList<>(saved);
+        fingerprints = new HashMap<>(saved.size());
+        for (OrderModel order : saved) {
+            fingerprints.put(order.getId(), gson.toJson(order));
+        }
+
+        return new OrdersUpdate(orders, new HashSet<>(), true);
+    }
+
+    private void save(int userId, List<OrderModel> orders) {
+        orderRepository.saveOrders(userId, orders)
+                .subscribe(
+                        () -> {
+                        },
+                        error -> Log.e(TAG, "Can't save orders", error));
+    }
+
+    /**
+     * Объединить полученные заказы с хранилищем.
+     * @param userId id пользователя.
+     * @param received заказы с сервера.
+     * @return изменения относительно хранилища.
+     */
+    private synchronized OrdersUpdate merge(int userId, List<OrderModel> received) {
+        if (this.userId == null || this.userId != userId) {
+            this.userId = userId;
+            orders = new ArrayList<>();
+            fingerprints = new HashMap<>();
+        }
+
+        Map<Integer, String> receivedFingerprints = new HashMap<>(received.size());
+        Set<Integer> changedIds = new HashSet<>();
+        boolean isStructureChanged = received.size() != orders.size();
+
+        for (int i = 0; i < received.size(); i++) {
+            OrderModel order = received.get(i);
+            String fingerprint = gson.toJson(order);
+            receivedFingerprints.put(order.getId(), fingerprint);
+
+            String previous = fingerprints.get(order.getId());
+            if (previous == null) {
+                isStructureChanged = true;
+            } else if (!previous.equals(fingerprint)) {
+                changedIds.add(order.getId());
+            }
+
+            if (!isStructureChanged && !orders.get(i).getId().equals(order.getId())) {
+                isStructureChanged = true;
+            }
+        }
+
+        orders = new ArrayList<>(received);
+        fingerprints = receivedFingerprints;
+
+        return new OrdersUpdate(orders, changedIds, isStructureChanged);
+    }
+}
@@ -0,0 +1,210 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Трассировка запуска приложения: именованные отрезки (span) и отметки (mark).
+ * События записываются в кольцевой буфер фиксированного размера, запись не выделяет память,
+ * поэтому трассировку можно оставлять на горячем пути. Время берется из монотонных часов (System.nanoTime).
+ * Имена событий должны быть константами: в буфере хранится ссылка на строку.
+ *
+ * Трассировка одного запуска начинается с {@link #startLaunch(String)} и заканчивается {@link #finish()},
+ * после чего события не записываются до следующего запуска.
+ */
+public final class StartupTracer {
+
+    /**
+     * Размер буфера в событиях. При переполнении перезаписываются самые старые события.
+     */
+    static final int CAPACITY = 256;
+
+    /**
+     * Версия формата выгрузки, увеличивается при несовместимых изменениях.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte KIND_BEGIN = 1;
+    private static final byte KIND_END = 2;
+    private static final byte KIND_MARK = 3;
+
+    private static final Object lock = new Object();
+
+    private static final String[] names = new String[CAPACITY];
+    private static final byte[] kinds = new byte[CAPACITY];
+    private static final long[] timestamps = new long[CAPACITY];
+    private static final String[] threads = new String[CAPACITY];
+
+    /**
+     * Количество записанных событий с начала запуска, включая перезаписанные.
+     */
+    private static int count = 0;
+    private static volatile boolean isActive = false;
+    private static String launchType = "";
+    private static long launchStart = 0;
+
+    private StartupTracer() {
+    }
+
+    /**
+     * Начать трассировку нового запуска, предыдущие события удаляются.
+     * @param type тип запуска, например "cold" или "warm".
+     */
+    public static void startLaunch(String type) {
+        synchronized (lock) {
+            count = 0;
+            launchType = type;
+            launchStart = System.nanoTime();
+            isActive = true;
+        }
+    }
+
+    /**
+     * Выполняется ли трассировка запуска.
+     */
+    public static boolean isActive() {
+        return isActive;
+    }
+
+    /**
+     * Закончить трассировку запуска.
+     * @return true, если трассировка выполнялась (для однократной выгрузки).
+     */
+    public static boolean finish() {
+        synchronized (lock) {
+            boolean wasActive = isActive;
+            isActive = false;
+            return wasActive;
+        }
+    }
+
+    /**
+     * Начало отрезка.
+     * @param name имя отрезка, константа.
+     */
+    public static void begin(String name) {
+        record(KIND_BEGIN, name, System.nanoTime());
+    }
+
+    /**
+     * Конец отрезка. Парой считается последнее незакрытое начало отрезка с тем же именем,
+     * поэтому отрезок может закончиться в другом потоке.
+     * @param name имя отрезка, константа.
+     */
+    public static void end(String name) {
+        record(KIND_END, name, System.nanoTime());
+    }
+
+    /**
+     * Отметка момента времени.
+     * @param name имя отметки, константа.
+     */
+    public static void mark(String name) {
+        record(KIND_MARK, name, System.nanoTime());
+    }
+
+    /**
+     * Отметка момента времени, который уже прошел, например запуска процесса.
+     * @param name имя отметки, константа.
+     * @param nanoTime время в шкале System.nanoTime.
+     */
+    public static void markAt(String name, long nanoTime) {
+        record(KIND_MARK, name, nanoTime);
+    }
+
+    private static void record(byte kind, String name, long timestamp) {
+        if (!isActive) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (!isActive) {
+                return;
+            }
+
+            int index = count % CAPACITY;
+            names[index] = name;
+            kinds[index] = kind;
+            timestamps[index] = timestamp;
+            // Имя потока хранится ссылкой, новая строка не создается.
+            threads[index] = Thread.currentThread().getName();
+            count++;
+        }
+    }
+
+    /**
+     * Записать трассировку в текстовом виде, разделенном табуляцией.
+     * Первая строка - заголовок вида "#startup-trace version=1 launch=cold build=... dropped=0",
+     * вторая - названия колонок, далее по строке на отрезок или отметку в порядке записи.
+     * Время в микросекундах от начала трассировки запуска, у отметок длительность пустая,
+     * у незакрытых отрезков длительность равна -1.
+     * @param out куда записать.
+     * @param build версия сборки для сравнения трассировок.
+     * @throws IOException ошибка записи.
+     */
+    public static void writeTo(Appendable out, String build) throws IOException {
+        List<String> rows = new ArrayList<>();
+        int dropped;
+        String type;
+
+        synchronized (lock) {
+            type = launchType;
+            dropped = Math.max(0, count - CAPACITY);
+
+            // Индексы строк незакрытых отрезков по имени, для поиска пары при закрытии.
+            Map<String, List<Integer>> openSpans = new HashMap<>();
+            List<Long> spanStarts = new ArrayList<>();
+
+            for (int i = dropped; i < count; i++) {
+                int index = i % CAPACITY;
+                long time = (timestamps[index] - launchStart) / 1000;
+
+                switch (kinds[index]) {
+                    case KIND_BEGIN:
+                        List<Integer> open = openSpans.get(names[index]);
+                        if (open == null) {
+                            open = new ArrayList<>();
+                            openSpans.put(names[index], open);
+                        }
+                        open.add(rows.size());
+                        spanStarts.add(time);
+                        rows.add("span\t" + names[index] + "\t" + threads[index] + "\t" + time + "\t");
+                        break;
+                    case KIND_END:
+                        List<Integer> candidates = openSpans.get(names[index]);
+                        if (candidates == null || candidates.isEmpty()) {
+                            // Начало отрезка было перезаписано или не записывалось.
+                            break;
+                        }
+                        int row = candidates.remove(candidates.size() - 1);
+                        long start = spanStarts.get(row);
+                        rows.set(row, rows.get(row) + (time - start));
+                        break;
+                    default:
+                        spanStarts.add(time);
+                        rows.add("mark\t" + names[index] + "\t" + threads[index] + "\t" + time + "\t");
+                        break;
+                }
+            }
+
+            for (List<Integer> open : openSpans.values()) {
+                for (int row : open) {
+                    rows.set(row, rows.get(row) + "-1");
+                }
+            }
+        }
+
+        out.append("#startup-trace\tversion=").append(Integer.toString(FORMAT_VERSION))
+                .append("\tlaunch=").append(type)
+                .append("\tbuild=").append(build)
+                .append("\tdropped=").append(Integer.toString(dropped))
+                .append('\n');
+        out.append("kind\tname\tthread\tstart_us\tduration_us\n");
+        for (String row : rows) {
+            out.append(row).append('\n');
+        }
+    }
+}
@@ -14,6 +14,9 @@ import com.tamagotchi.restaurantclientapplication.data.exceptions.AuthPasswordEx
 import com.tamagotchi.restaurantclientapplication.data.model.LoginInfo;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
 
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+
 public class LoginViewModel extends ViewModel {
 
     private MutableLiveData<LoginFormState> loginFormState = new MutableLiveData<>();
@@ -37,34 +40,40 @@ public class LoginViewModel extends ViewModel {
     public void login(String username, String password) {
 
         LoginInfo loginInfo = new LoginInfo(username, password);
-        authenticationService.signIn(loginInfo).subscribe(
-                () -> loginResult.setValue(new LoginResult()),
-                error -> {
-                    if (error instanceof AuthLoginException) {
-                        loginResult.setValue(new LoginResult(R.string.invalid_username));
-                    } else if (error instanceof AuthPasswordException) {
-                        loginResult.setValue(new LoginResult(R.string.auth_invalid_password));
-                    } else {
-                        loginResult.setValue(new LoginResult(R.string.login_failed));
-                    }
-                }
-        );
+        authenticationService.signIn(loginInfo)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        () -> loginResult.setValue(new LoginResult()),
+                        error -> {
+                            if (error instanceof AuthLoginException) {
+                                loginResult.setValue(new LoginResult(R.string.invalid_username));
+                            } else if (error instanceof AuthPasswordException) {
+                                loginResult.setValue(new LoginResult(R.string.auth_invalid_password));
+                            } else {
+                                loginResult.setValue(new LoginResult(R.string.login_failed));
+                            }
+                        }
+                );
     }
 
     public void create(String username, String password) {
 
         LoginInfo createInfo = new LoginInfo(username, password);
 
-        accountsRepository.createAccount(createInfo).subscribe(
-                () -> loginResult.setValue(new LoginResult()),
-                error -> {
-                    if (error instanceof AccountExistException) {
-                        loginResult.setValue(new LoginResult(R.string.account_already_exist));
-                    } else {
-                        loginResult.setValue(new LoginResult(R.string.create_account_error));
-                    }
-                }
-        );
+        accountsRepository.createAccount(createInfo)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        () -> loginResult.setValue(new LoginResult()),
+                        error -> {
+                            if (error instanceof AccountExistException) {
+                                loginResult.setValue(new LoginResult(R.string.account_already_exist));
+                            } else {
+                                loginResult.setValue(new LoginResult(R.string.create_account_error));
+                            }
+                        }
+                );
     }
 
     public void loginDataChanged(String username, String password) {
@@ -20,7 +20,10 @@ import androidx.lifecycle.ViewModelProvider;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
+import com.tamagotchi.restaurantclientapplication.BuildConfig;
 import com.tamagotchi.restaurantclientapplication.R;
+import com.tamagotchi.restaurantclientapplication.services.FrameMetricsMonitor;
+import com.tamagotchi.restaurantclientapplication.services.StartupTracer;
 import com.tamagotchi.restaurantclientapplication.ui.menu.MenuFragment;
 import com.tamagotchi.restaurantclientapplication.ui.orders.OrdersFragment;
 import com.tamagotchi.restaurantclientapplication.ui.restaurants.RestaurantsFragment;
@@ -56,11 +59,36 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTracer.mark("main_activity.create");
         setContentView(R.layout.activity_main);
         viewModel = new ViewModelProvider(this, new MainViewModelFactory()).get(MainViewModel.class);
         InitNavigation();
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Время кадров смотрится на экране отладки, который есть только в debug сборке.
+        if (BuildConfig.DEBUG) {
+            FrameMetricsMonitor.getInstance().start(this);
+        }
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (BuildConfig.DEBUG) {
+            FrameMetricsMonitor.getInstance().stop(this);
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // В фоне процесс может быть завершен, например пока открыт экран оплаты.
+        viewModel.flushDraft();
+    }
+
     private void InitNavigation() {
         bottomNavigationView = findViewById(R.id.bottom_navigation_view);
         bottomNavigationView.setOnNavigationItemSelectedListener(this);
@@ -118,6 +146,9 @@ public class MainActivity extends AppCompatActivity implements BottomNavigationV
             }
 
             previousNavigation = selectedNavigation;
+            if (BuildConfig.DEBUG) {
+                FrameMetricsMonitor.getInstance().setScreen(selectedNavigation.name());
+            }
         });
     }
 
@@ -9,7 +9,10 @@ import androidx.lifecycle.ViewModel;
 import com.tamagotchi.restaurantclientapplication.Application;
 import com.tamagotchi.restaurantclientapplication.data.Result;
 import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.restaurantclientapplication.data.model.OrderDraft;
 import com.tamagotchi.restaurantclientapplication.data.model.OrderVisitInfo;
+import com.tamagotchi.restaurantclientapplication.data.model.OrdersUpdate;
+import com.tamagotchi.restaurantclientapplication.data.model.UserCart;
 import com.tamagotchi.restaurantclientapplication.data.repositories.DishesRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.FeedbackRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.MenuRepository;
@@ -17,21 +20,23 @@ import com.tamagotchi.restaurantclientapplication.data.repositories.OrderReposit
 import com.tamagotchi.restaurantclientapplication.data.repositories.RestaurantsRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.UsersRepository;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
+import com.tamagotchi.restaurantclientapplication.services.DraftOrderStorageService;
+import com.tamagotchi.restaurantclientapplication.services.Iso8601;
+import com.tamagotchi.restaurantclientapplication.services.MenuAssembler;
+import com.tamagotchi.restaurantclientapplication.services.MenuPhotoPrefetcher;
+import com.tamagotchi.restaurantclientapplication.services.OrderSyncService;
 import com.tamagotchi.tamagotchiserverprotocol.models.FeedbackCreateModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.OrderCreateModel;
-import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
 import com.tamagotchi.tamagotchiserverprotocol.models.UpdatableInfoUser;
 import com.tamagotchi.tamagotchiserverprotocol.models.UserModel;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.core.Completable;
-import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 
@@ -74,6 +79,16 @@ public class MainViewModel extends ViewModel {
      */
     private DishesRepository dishesRepository;
 
+    /**
+     * Предварительная загрузка фотографий меню выбранного ресторана.
+     */
+    private MenuPhotoPrefetcher menuPhotoPrefetcher;
+
+    /**
+     * Хранилище черновика заказа (ресторан, меню, корзина, информация о посещении).
+     */
+    private DraftOrderStorageService draftStorage;
+
     /**
      * Выбранный элемент навигации приложения (нижняя панель)
      */
@@ -94,20 +109,31 @@ public class MainViewModel extends ViewModel {
      */
     private MutableLiveData<RestaurantModel> selectedRestaurant = new MutableLiveData<>();
 
+    /**
+     * Выбранный ресторан восстановлен из черновика, а не выбран пользователем в этом запуске.
+     */
+    private boolean isSelectedRestaurantRestored = false;
+
+    /**
+     * Пользователь, которому принадлежит черновик: текущий пользователь или,
+     * пока он не загружен, владелец восстановленного черновика.
+     */
+    private Integer draftOwnerId = null;
+
     /**
      * Меню выбранного ресторана.
      */
     private MutableLiveData<Result<List<FullMenuItem>>> selectedRestaurantMenu = new MutableLiveData<>();
 
     /**
-     * Элементы меню, которые выбрал пользователь.
+     * Заказы пользователя и их последние изменения.
      */
-    private MutableLiveData<List<FullMenuItem>> userMenuSubject = new MutableLiveData<>();
+    private MutableLiveData<OrdersUpdate> userOrders = new MutableLiveData<>();
 
     /**
-     * Все заказы пользователя.
+     * Синхронизация заказов пользователя с сервером.
      */
-    private MutableLiveData<List<OrderModel>> allUserOrders = new MutableLiveData<>();
+    private OrderSyncService orderSyncService;
 
     /**
      * Текущий пользователь.
@@ -123,11 +149,24 @@ public class MainViewModel extends ViewModel {
 
     private Disposable menuItemRequest = null;
 
-    private List<FullMenuItem> userMenu = new ArrayList<>();
+    private Disposable menuPhotoPrefetch = null;
+
+    private UserCart userMenu = new UserCart();
+
+    /**
+     * Меню выбранного ресторана для черновика заказа, null пока меню не загружено.
+     */
+    private List<FullMenuItem> restaurantMenu = null;
+
+    /**
+     * Восстановление черновика заказа, завершается после применения черновика или его отсутствия.
+     */
+    private Completable draftRestore;
 
     MainViewModel(RestaurantsRepository restaurantsRepository, DishesRepository dishesRepository,
                   MenuRepository menuRepository, AuthenticationService authenticationService,
-                  OrderRepository orderRepository, FeedbackRepository feedbackRepository, UsersRepository usersRepository) {
+                  OrderRepository orderRepository, FeedbackRepository feedbackRepository, UsersRepository usersRepository,
+                  MenuPhotoPrefetcher menuPhotoPrefetcher, DraftOrderStorageService draftStorage) {
         Application.startWorking();
         this.feedbackRepository = feedbackRepository;
         this.restaurantsRepository = restaurantsRepository;
@@ -135,17 +174,24 @@ public class MainViewModel extends ViewModel {
         this.menuRepository = menuRepository;
         this.authenticationService = authenticationService;
         this.orderRepository = orderRepository;
+        this.orderSyncService = new OrderSyncService(orderRepository);
         this.usersRepository = usersRepository;
+        this.menuPhotoPrefetcher = menuPhotoPrefetcher;
+        this.draftStorage = draftStorage;
         InitRestaurants();
         InitOrderVisitInfo();
         InitUser();
+        InitDraft();
     }
 
     private void InitUser() {
         completedUserSubscriber = this.authenticationService.currentUser().subscribeOn(Schedulers.io())
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
-                        currentUser -> this.currentUser.setValue(currentUser),
+                        currentUser -> {
+                            this.currentUser.setValue(currentUser);
+                            discardForeignDraft(currentUser);
+                        },
                         RuntimeException::new
                 );
     }
@@ -156,20 +202,147 @@ public class MainViewModel extends ViewModel {
         orderVisitInfo.setValue(new OrderVisitInfo(visitTime, 1));
     }
 
+    /**
+     * Восстановить черновик заказа, сохраненный до завершения процесса.
+     * Меню берется из черновика без запросов к серверу.
+     * Черновик читается в фоне, оформление заказа ожидает восстановления (см. {@link #doOrder(String)}),
+     * чтобы результат оплаты, который приходит сразу после пересоздания экрана, оформлялся по восстановленной корзине.
+     * Принадлежность черновика проверяется после загрузки текущего пользователя (см. {@link #discardForeignDraft(UserModel)}).
+     */
+    private void InitDraft() {
+        draftRestore = draftStorage.load()
+                .observeOn(AndroidSchedulers.mainThread())
+                .doOnSuccess(this::applyDraft)
+                .ignoreElement()
+                .doOnError(error -> Log.e(LogTag, "Can't restore order draft", error))
+                .onErrorComplete()
+                .cache();
+        draftRestore.subscribe();
+    }
+
+    private void applyDraft(OrderDraft draft) {
+        // Пока черновик читался, пользователь уже выбрал ресторан.
+        if (selectedRestaurant.getValue() != null) {
+            return;
+        }
+
+        // Пользователь загружен раньше черновика, черновик другого пользователя не применяется.
+        UserModel user = currentUser.getValue();
+        if (user != null && user.getId() != draft.getUserId()) {
+            draftStorage.clear();
+            return;
+        }
+
+        draftOwnerId = draft.getUserId();
+        isSelectedRestaurantRestored = true;
+        selectedRestaurant.setValue(draft.getRestaurant());
+        restaurantMenu = draft.getMenu();
+        setSelectedRestaurantMenu(new Result.Success(restaurantMenu));
+
+        userMenu = draft.restoreCart();
+
+        // Прошедшее время посещения не восстанавливаем, остается время по умолчанию.
+        Calendar visitTime = orderVisitInfo.getValue().getVisitTime();
+        if (draft.getVisitTime() > System.currentTimeMillis()) {
+            visitTime = Calendar.getInstance();
+            visitTime.setTimeInMillis(draft.getVisitTime());
+        }
+        orderVisitInfo.setValue(new OrderVisitInfo(visitTime, draft.getNumberOfVisitors()));
+    }
+
+    /**
+     * Сбросить черновик другого пользователя, например если после завершения процесса
+     * сохраненный токен оказался недействительным и вошел другой пользователь.
+     * @param user текущий пользователь.
+     */
+    private void discardForeignDraft(UserModel user) {
+        if (draftOwnerId != null && !draftOwnerId.equals(user.getId())) {
+            if (menuItemRequest != null) {
+                menuItemRequest.dispose();
+            }
+
+            isSelectedRestaurantRestored = false;
+            selectedRestaurant.setValue(null);
+            restaurantMenu = null;
+            setSelectedRestaurantMenu(new Result.Success(new ArrayList<FullMenuItem>()));
+            userMenu.clear();
+            InitOrderVisitInfo();
+            draftStorage.clear();
+        }
+
+        draftOwnerId = user.getId();
+    }
+
+    /**
+     * Пометить черновик заказа измененным после изменения ресторана, меню, корзины или информации о посещении.
+     * Сам черновик собирается хранилищем один раз перед записью (см. {@link #buildDraft()}).
+     */
+    private void saveDraft() {
+        // Пока пользователь не загружен, владелец черновика неизвестен и черновик не сохраняется.
+        if (draftOwnerId == null) {
+            RestaurantModel restaurant = selectedRestaurant.getValue();
+            if (restaurant == null || restaurantMenu == null) {
+                draftStorage.clear();
+            }
+            return;
+        }
+
+        draftStorage.save(this::buildDraft);
+    }
+
+    /**
+     * Собрать черновик из текущего состояния.
+     * @return черновик или null, если ресторан или меню не выбраны и черновик нужно удалить.
+     */
+    private OrderDraft buildDraft() {
+        RestaurantModel restaurant = selectedRestaurant.getValue();
+        if (restaurant == null || restaurantMenu == null || draftOwnerId == null) {
+            return null;
+        }
+
+        return OrderDraft.of(draftOwnerId, restaurant, restaurantMenu, userMenu.snapshot(), orderVisitInfo.getValue());
+    }
+
+    /**
+     * Записать черновик заказа без задержки. Вызывается, когда приложение уходит в фон,
+     * например при переходе к оплате, после чего процесс может быть завершен.
+     */
+    public void flushDraft() {
+        // Количество гостей изменяется в OrderVisitInfo напрямую, поэтому черновик помечается измененным.
+        if (selectedRestaurant.getValue() != null && restaurantMenu != null) {
+            saveDraft();
+        }
+        draftStorage.flush();
+    }
+
+
+    /**
+     * Запустить синхронизацию заказов пользователя.
+     * Сохраненные заказы приходят сразу, далее приходят только изменения заказов.
+     */
+    public void startOrdersSync() {
+        stopOrdersSync();
 
-    private void initSubscribeAllOrders() {
         UserModel currentUser = this.currentUser.getValue();
         if (currentUser != null) {
-            completedOrdersSubscriber = this.orderRepository.getUserOrders(currentUser.getId())
-                    .subscribeOn(Schedulers.io())
+            completedOrdersSubscriber = this.orderSyncService.sync(currentUser.getId())
                     .observeOn(AndroidSchedulers.mainThread())
                     .subscribe(
-                            orders -> this.allUserOrders.setValue(orders),
-                            error -> {
-                            }
+                            update -> this.userOrders.setValue(update),
+                            error -> Log.e(LogTag, "Orders sync stopped", error)
                     );
         } else {
-            Log.e(LogTag, "initSubscribeAllOrders: User not initialize");
+            Log.e(LogTag, "startOrdersSync: User not initialize");
+        }
+    }
+
+    /**
+     * Остановить синхронизацию заказов, например, когда список заказов не виден.
+     */
+    public void stopOrdersSync() {
+        if (completedOrdersSubscriber != null) {
+            completedOrdersSubscriber.dispose();
+            completedOrdersSubscriber = null;
         }
     }
 
@@ -197,6 +370,7 @@ public class MainViewModel extends ViewModel {
     }
 
     public void logOut() {
+        draftStorage.clear();
         authenticationService.signOut();
     }
 
@@ -212,18 +386,14 @@ public class MainViewModel extends ViewModel {
                 });
     }
 
-    public void refreshOrders() {
-        allUserOrders.setValue(new ArrayList<>());
-
-        if (completedOrdersSubscriber != null) {
-            completedOrdersSubscriber.dispose();
-        }
-
-        this.initSubscribeAllOrders();
-    }
-
-    public LiveData<List<OrderModel>> getUserOrders() {
-        return allUserOrders;
+    /**
+     * Возвращает observable на изменения заказов пользователя.
+     * Каждое значение содержит все заказы, поэтому новый подписчик может сразу отобразить список.
+     *
+     * @return LiveData изменений заказов.
+     */
+    public LiveData<OrdersUpdate> getUserOrders() {
+        return userOrders;
     }
 
     public LiveData<Result<List<RestaurantModel>>> getRestaurants() {
@@ -234,18 +404,37 @@ public class MainViewModel extends ViewModel {
         return selectedRestaurant;
     }
 
+    /**
+     * Выбран ли текущий ресторан восстановлением черновика при запуске, а не пользователем.
+     * Например, карта не перемещается к восстановленному ресторану.
+     */
+    public boolean isSelectedRestaurantRestored() {
+        return isSelectedRestaurantRestored;
+    }
+
     public void setSelectedRestaurant(RestaurantModel restaurant) {
+        isSelectedRestaurantRestored = false;
         selectedRestaurant.setValue(restaurant);
         InitRestaurantMenu(restaurant);
     }
 
     /**
-     * Возвращает observable на элементы меню, которые выбрал пользователь.
+     * Снимок меню пользователя. Снимок создается только после изменения корзины.
+     *
+     * @return неизменяемый снимок корзины.
+     */
+    public UserCart.Snapshot getUserMenu() {
+        return userMenu.snapshot();
+    }
+
+    /**
+     * Количество элемента меню в меню пользователя.
      *
-     * @return LiveData меню пользователя.
+     * @param menuItemId id элемента меню.
+     * @return количество, 0 если элемента нет.
      */
-    public LiveData<List<FullMenuItem>> getUserMenu() {
-        return userMenuSubject;
+    public int getUserMenuQuantity(int menuItemId) {
+        return userMenu.getQuantity(menuItemId);
     }
 
     /**
@@ -254,9 +443,8 @@ public class MainViewModel extends ViewModel {
      * @param menuItem новый элемент меню.
      */
     public void addToUserMenu(FullMenuItem menuItem) {
-        userMenu = new ArrayList<>(userMenu);
         userMenu.add(menuItem);
-        userMenuSubject.setValue(userMenu);
+        saveDraft();
     }
 
     /**
@@ -265,18 +453,17 @@ public class MainViewModel extends ViewModel {
      * @param menuItem удаляемый элемент.
      */
     public void removeFromUserMenu(FullMenuItem menuItem) {
-        userMenu = new ArrayList<>(userMenu);
-        userMenu.remove(menuItem);
-        userMenuSubject.setValue(userMenu);
+        if (userMenu.remove(menuItem)) {
+            saveDraft();
+        }
     }
 
     /**
      * Очистить меню пользователя.
      */
     public void clearUserMenu() {
-        userMenu = new ArrayList<>(userMenu);
         userMenu.clear();
-        userMenuSubject.setValue(userMenu);
+        saveDraft();
     }
 
     /**
@@ -298,8 +485,13 @@ public class MainViewModel extends ViewModel {
 
     public void setOrderVisitInfo(OrderVisitInfo visitInfo) {
         orderVisitInfo.setValue(visitInfo);
+        saveDraft();
     }
 
+    /**
+     * Иницилизирует список ресторанов. Сохраненный ранее список приходит сразу,
+     * актуальный список с сервера приходит вторым значением, если он изменился.
+     */
     private void InitRestaurants() {
         this.restaurantsRepository.getAllRestaurants()
                 .subscribeOn(Schedulers.io())
@@ -317,9 +509,10 @@ public class MainViewModel extends ViewModel {
     /**
      * Выполняем иницилизацию меню выбранного ресторана, для этого:
      * 1. Получаем коллекцию MenuItem с сервера.
-     * 2. По каждому MenuItem запрашивем Dish, который ему принадлежит.
+     * 2. Одним пакетом запрашиваем Dish всех MenuItem (см. DishesRepository.getDishesByIds).
      * 3. Формируем FullMenuItem из Dish и MenuItem, делаем коллекцию из элементов и
      * отправляем в LiveData.
+     * 4. Пока пользователь выбирает время посещения, в фоне загружаем фотографии первого экрана меню.
      * TODO: возможно стоит убрать возврат коллекций из репозиториев, но это довольно сложно.
      *
      * @param restaurant ресторан, меню которого требуется инициализировать.
@@ -330,31 +523,28 @@ public class MainViewModel extends ViewModel {
             menuItemRequest.dispose();
         }
 
-        // Очищаем меню пользователя.
+        if (menuPhotoPrefetch != null) {
+            menuPhotoPrefetch.dispose();
+        }
+
+        // Очищаем меню пользователя, меню прошлого ресторана больше не относится к черновику.
+        restaurantMenu = null;
         clearUserMenu();
 
         menuItemRequest = this.menuRepository.getMenu(restaurant.getId())
-                .toObservable()
                 .subscribeOn(Schedulers.io())
                 .flatMap(
-                        list -> Observable.fromIterable(list)
-                                .flatMap(
-                                        menuItem -> this.dishesRepository.getDishById(menuItem.getDishId()).toObservable()
-                                                .subscribeOn(Schedulers.io())
-                                                .onErrorResumeNext(
-                                                        x -> {
-                                                            Log.e(LogTag, x.toString());
-                                                            return Observable.empty();
-                                                        })
-                                                .map(
-                                                        dishModel ->
-                                                                new FullMenuItem(menuItem, dishModel)
-                                                )))
-                .toList()
+                        menu -> this.dishesRepository.getDishesByIds(MenuAssembler.collectDishIds(menu))
+                                .map(dishes -> MenuAssembler.assemble(menu, dishes)))
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe(
                         menuItems -> {
+                            restaurantMenu = menuItems;
                             this.setSelectedRestaurantMenu(new Result.Success(menuItems));
+                            saveDraft();
+                            menuPhotoPrefetch = menuPhotoPrefetcher.prefetch(menuItems)
+                                    .subscribe(() -> {
+                                    }, error -> Log.e(LogTag, "Can't prefetch menu photos", error));
                         }, error -> {
                             this.setSelectedRestaurantMenu(new Result.Error(new Exception(error)));
                         });
@@ -380,36 +570,50 @@ public class MainViewModel extends ViewModel {
     }
 
     public Completable doOrder() {
-        return orderRepository.createOrder(buildOrderInfo(null));
+        return doOrder(null);
     }
 
+    /**
+     * Оформить заказ по текущей корзине.
+     * После завершения процесса во время оплаты результат оплаты может прийти раньше восстановления черновика
+     * и загрузки текущего пользователя, поэтому заказ оформляется после них.
+     *
+     * @param paymentToken токен оплаты, null - заказ без оплаты.
+     * @return Completable оформления заказа.
+     */
     public Completable doOrder(String paymentToken) {
-        return orderRepository.createOrder(buildOrderInfo(paymentToken));
+        return draftRestore
+                .andThen(authenticationService.currentUser().firstOrError())
+                .observeOn(AndroidSchedulers.mainThread())
+                .flatMapCompletable(user -> {
+                    // Корзина другого пользователя не оформляется.
+                    discardForeignDraft(user);
+                    if (selectedRestaurant.getValue() == null) {
+                        return Completable.error(new IllegalStateException("Restaurant is not selected"));
+                    }
+
+                    return orderRepository.createOrder(buildOrderInfo(user, paymentToken))
+                            .subscribeOn(Schedulers.io());
+                });
     }
 
-    private OrderCreateModel buildOrderInfo(String paymentToken) {
-        List<Integer> orderMenu = new ArrayList<>();
-        for (FullMenuItem menuItem :
-                userMenu) {
-            orderMenu.add(menuItem.getId());
-        }
+    private OrderCreateModel buildOrderInfo(UserModel user, String paymentToken) {
+        List<Integer> orderMenu = userMenu.snapshot().getMenuItemIds();
 
         if (orderMenu.size() == 0) {
             orderMenu = null;
         }
 
         Calendar timeVisitCalendar = orderVisitInfo.getValue().getVisitTime();
-        SimpleDateFormat sdf;
-        sdf = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
-        sdf.setTimeZone(timeVisitCalendar.getTimeZone());
         // Убираем секунды и миллисекунды из заказа
         // TODO: сделать это на сервере (на текущий момент это заняло бы больше времени, чем поставить тут)
         timeVisitCalendar.set(Calendar.SECOND, 0);
         timeVisitCalendar.set(Calendar.MILLISECOND, 0);
-        String timeVisit = sdf.format(timeVisitCalendar.getTime());
+        long timeVisitMillis = timeVisitCalendar.getTimeInMillis();
+        String timeVisit = Iso8601.format(timeVisitMillis, timeVisitCalendar.getTimeZone().getOffset(timeVisitMillis));
 
         return new OrderCreateModel(getSelectedRestaurant().getValue().getId(),
-                currentUser.getValue().getId(),
+                user.getId(),
                 orderMenu,
                 orderVisitInfo.getValue().getNumberOfVisitors(),
                 null,
@@ -4,13 +4,17 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.tamagotchi.restaurantclientapplication.Application;
 import com.tamagotchi.restaurantclientapplication.data.repositories.DishesRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.FeedbackRepository;
+import com.tamagotchi.restaurantclientapplication.data.repositories.FilesRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.MenuRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.OrderRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.RestaurantsRepository;
 import com.tamagotchi.restaurantclientapplication.data.repositories.UsersRepository;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationService;
+import com.tamagotchi.restaurantclientapplication.services.DraftOrderStorageService;
+import com.tamagotchi.restaurantclientapplication.services.MenuPhotoPrefetcher;
 import com.tamagotchi.restaurantclientapplication.ui.start.StartViewModel;
 
 public class MainViewModelFactory implements ViewModelProvider.Factory {
@@ -28,7 +32,9 @@ public class MainViewModelFactory implements ViewModelProvider.Factory {
                         AuthenticationService.getInstance(),
                         OrderRepository.getInstance(),
                         FeedbackRepository.getInstance(),
-                        UsersRepository.getInstance()
+                        UsersRepository.getInstance(),
+                        MenuPhotoPrefetcher.forFirstScreen(FilesRepository.getInstance(), Application.get().getResources()),
+                        DraftOrderStorageService.getInstance()
                         );
             }
 
@@ -1,13 +1,12 @@
 package com.tamagotchi.restaurantclientapplication.ui.menu;
 
+import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.ImageView;
-import android.widget.ListView;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -16,16 +15,21 @@ import androidx.appcompat.widget.AppCompatImageButton;
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.makeramen.roundedimageview.RoundedDrawable;
 import com.tamagotchi.restaurantclientapplication.R;
 import com.tamagotchi.restaurantclientapplication.data.Result;
 import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
 import com.tamagotchi.restaurantclientapplication.data.repositories.FilesRepository;
-import com.tamagotchi.restaurantclientapplication.services.ImageRedactor;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModel;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModelFactory;
 
 import java.util.List;
+import java.util.Objects;
 
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
 import io.reactivex.rxjava3.disposables.CompositeDisposable;
@@ -37,13 +41,17 @@ public class MenuFragment extends Fragment {
     private static final String TAG = "MenuFragment";
     private View viewMenuFragment;
     private MainViewModel viewModel;
-    private ListView listView;
+    private RecyclerView listView;
 
     private FilesRepository filesRepository;
-    private List<FullMenuItem> fullMenuItems;
 
     private Drawable emptyDishImage;
 
+    /**
+     * Размер фотографии блюда в пикселях, под него декодируются изображения.
+     */
+    private int dishPhotoSize;
+
     private CompositeDisposable listImagesDownloadSubscribers;
     private MenuItemsAdapter menuItemsAdapter;
 
@@ -53,10 +61,15 @@ public class MenuFragment extends Fragment {
         viewMenuFragment = inflater.inflate(R.layout.fragment_menu, container, false);
         listView = viewMenuFragment.findViewById(R.id.listViewMenu);
 
-        emptyDishImage = ContextCompat.getDrawable(viewMenuFragment.getContext(), R.drawable.ic_photo);
+        // Заглушка растеризуется один раз, иначе RoundedImageView создает новый bitmap при каждом bind.
+        emptyDishImage = RoundedDrawable.fromDrawable(ContextCompat.getDrawable(viewMenuFragment.getContext(), R.drawable.ic_photo));
+        dishPhotoSize = getResources().getDimensionPixelSize(R.dimen.menu_item_photo_size);
         menuItemsAdapter = new MenuItemsAdapter();
         listImagesDownloadSubscribers = new CompositeDisposable();
 
+        listView.setLayoutManager(new LinearLayoutManager(viewMenuFragment.getContext()));
+        listView.setAdapter(menuItemsAdapter);
+
         if (viewModel.getSelectedRestaurant().getValue() != null) {
             initListView();
         } else {
@@ -70,6 +83,7 @@ public class MenuFragment extends Fragment {
     public void onDestroyView() {
         super.onDestroyView();
 
+        listView.setAdapter(null);
         listImagesDownloadSubscribers.dispose();
     }
 
@@ -78,99 +92,192 @@ public class MenuFragment extends Fragment {
 
         viewModel.getSelectedRestaurantMenu().observe(getViewLifecycleOwner(), result -> {
             if (result instanceof Result.Success) {
-
-                fullMenuItems = (List<FullMenuItem>) ((Result.Success) result).getData();
-                listView.setAdapter(menuItemsAdapter);
+                // Изменения списка вычисляются DiffUtil в фоне, перерисовываются только измененные элементы.
+                menuItemsAdapter.submitList((List<FullMenuItem>) ((Result.Success) result).getData());
             } else {
                 // TODO: обработка ошибки
             }
         });
     }
 
-    private class MenuItemsAdapter extends BaseAdapter {
-        public void refresh() {
-            notifyDataSetChanged();
+    /**
+     * Сравнение элементов меню для DiffUtil.
+     */
+    private static final DiffUtil.ItemCallback<FullMenuItem> MENU_ITEM_DIFF = new DiffUtil.ItemCallback<FullMenuItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull FullMenuItem oldItem, @NonNull FullMenuItem newItem) {
+            return oldItem.getId() == newItem.getId();
         }
 
         @Override
-        public int getCount() {
-            return fullMenuItems.size();
+        public boolean areContentsTheSame(@NonNull FullMenuItem oldItem, @NonNull FullMenuItem newItem) {
+            // Блюда сравниваются по отображаемым полям: после восстановления черновика или повторной загрузки
+            // меню неизмененное блюдо - другой объект.
+            return oldItem.getPrice() == newItem.getPrice()
+                    && oldItem.isDeleted() == newItem.isDeleted()
+                    && (oldItem.getDish() == newItem.getDish()
+                    || (Objects.equals(oldItem.getDish().getPhotos().get(0), newItem.getDish().getPhotos().get(0))
+                    && Objects.equals(oldItem.getDish().getName(), newItem.getDish().getName())
+                    && Objects.equals(oldItem.getDish().getDescription(), newItem.getDish().getDescription())));
         }
+    };
 
-        @Override
-        public Object getItem(int position) {
-            return fullMenuItems.get(position);
+    private class MenuItemsAdapter extends ListAdapter<FullMenuItem, MenuItemViewHolder> {
+        MenuItemsAdapter() {
+            super(MENU_ITEM_DIFF);
+            setHasStableIds(true);
         }
 
         @Override
         public long getItemId(int position) {
-            return fullMenuItems.get(position).getId();
+            return getItem(position).getId();
         }
 
+        @NonNull
         @Override
-        public View getView(int position, View convertView, ViewGroup parent) {
-            View menuItem = getLayoutInflater().inflate(R.layout.menu_item, null);
+        public MenuItemViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View menuItem = getLayoutInflater().inflate(R.layout.menu_item, parent, false);
+            return new MenuItemViewHolder(menuItem);
+        }
 
-            FullMenuItem fullMenuItem = fullMenuItems.get(position);
+        @Override
+        public void onBindViewHolder(@NonNull MenuItemViewHolder holder, int position) {
+            holder.bind(getItem(position));
+        }
 
-            ImageView photo = menuItem.findViewById(R.id.photoItemMenu);
-            TextView name = menuItem.findViewById(R.id.dishName);
-            TextView price = menuItem.findViewById(R.id.dishPrice);
-            TextView count = menuItem.findViewById(R.id.countItemMenu);
-            TextView description = menuItem.findViewById(R.id.dishDescription);
+        @Override
+        public void onViewRecycled(@NonNull MenuItemViewHolder holder) {
+            holder.cancelImageLoad();
+        }
+    }
 
-            photo.setImageDrawable(emptyDishImage);
+    private class MenuItemViewHolder extends RecyclerView.ViewHolder {
+        private final ImageView photo;
+        private final TextView name;
+        private final TextView price;
+        private final TextView count;
+        private final TextView description;
 
-            Disposable subscriber = filesRepository.getImageById(fullMenuItem.getDish().getPhotos().get(0))
-                    .observeOn(AndroidSchedulers.mainThread())
-                    .subscribeOn(Schedulers.io())
-                    .subscribe(image -> {
-                        photo.setImageBitmap(ImageRedactor.getRoundedCornerBitmap(image, 50));
-                    }, error -> {
-                    });
+        private FullMenuItem fullMenuItem;
 
-            listImagesDownloadSubscribers.add(subscriber);
+        /**
+         * Загрузка фотографии текущего блюда, отменяется при переиспользовании элемента.
+         */
+        private Disposable imageLoad;
 
-            name.setText(fullMenuItems.get(position).getDish().getName());
-            price.setText(Integer.toString(fullMenuItem.getPrice()));
+        /**
+         * Id и размер фотографии, которая показана или загружается, null - показана заглушка.
+         */
+        private Integer boundPhotoId;
+        private int boundPhotoSize;
 
-            //TODO: Возможно не красиво, подумать!
-            int itemCount = 0;
-            for (FullMenuItem item: viewModel.getUserMenu().getValue()) {
-                if (item.getId() == fullMenuItem.getId()) {
-                    itemCount += 1;
-                }
-            }
-            count.setText(Integer.toString(itemCount));
+        MenuItemViewHolder(@NonNull View menuItem) {
+            super(menuItem);
 
-            if (fullMenuItem.getDish().getDescription().equals("")) {
-                description.setHeight(0);
-            } else {
-                description.setText(fullMenuItem.getDish().getDescription());
-            }
+            photo = menuItem.findViewById(R.id.photoItemMenu);
+            name = menuItem.findViewById(R.id.dishName);
+            price = menuItem.findViewById(R.id.dishPrice);
+            count = menuItem.findViewById(R.id.countItemMenu);
+            description = menuItem.findViewById(R.id.dishDescription);
 
-            //TODO: Возможно не красиво, подумать!
             AppCompatImageButton add = menuItem.findViewById(R.id.addItemMenu);
             add.setOnClickListener((view) -> {
+                if (fullMenuItem == null) {
+                    return;
+                }
+
                 viewModel.addToUserMenu(fullMenuItem);
-                count.setText(Integer.toString(Integer.parseInt(count.getText().toString()) + 1));
-                });
+                bindCount();
+            });
 
             AppCompatImageButton remove = menuItem.findViewById(R.id.removeItemMenu);
             remove.setOnClickListener((view) -> {
-                int numberOfDishes = Integer.parseInt(count.getText().toString()) - 1;
+                if (fullMenuItem == null) {
+                    return;
+                }
 
-                if (numberOfDishes < 0) {
+                if (viewModel.getUserMenuQuantity(fullMenuItem.getId()) == 0) {
                     Toast.makeText(requireContext(), "Cannot be less than 0", Toast.LENGTH_SHORT).show();
                 } else {
                     viewModel.removeFromUserMenu(fullMenuItem);
-                    count.setText(Integer.toString(numberOfDishes));
+                    bindCount();
                 }
             });
+        }
+
+        void bind(FullMenuItem fullMenuItem) {
+            this.fullMenuItem = fullMenuItem;
+
+            bindPhoto(fullMenuItem.getDish().getPhotos().get(0));
 
-            return menuItem;
+            name.setText(fullMenuItem.getDish().getName());
+            price.setText(Integer.toString(fullMenuItem.getPrice()));
+
+            bindCount();
+
+            if (fullMenuItem.getDish().getDescription().equals("")) {
+                description.setVisibility(View.GONE);
+            } else {
+                description.setVisibility(View.VISIBLE);
+                description.setText(fullMenuItem.getDish().getDescription());
+            }
         }
-    }
-}
 
+        /**
+         * Показать количество блюда в корзине пользователя.
+         */
+        void bindCount() {
+            count.setText(Integer.toString(viewModel.getUserMenuQuantity(fullMenuItem.getId())));
+        }
+
+        /**
+         * Показать фотографию блюда.
+         * Фотография, которая уже показана или загружается, не загружается повторно, а фотография из кэша
+         * в памяти показывается сразу, поэтому повторная привязка элемента не мигает заглушкой.
+         * @param photoId id фотографии.
+         */
+        void bindPhoto(int photoId) {
+            if (boundPhotoId != null && boundPhotoId == photoId && boundPhotoSize == dishPhotoSize) {
+                return;
+            }
+
+            disposeImageLoad();
+            boundPhotoId = photoId;
+            boundPhotoSize = dishPhotoSize;
+
+            // Скругление углов выполняется при отрисовке (RoundedImageView), без копии bitmap.
+            Bitmap cached = filesRepository.getCachedImage(photoId, dishPhotoSize, dishPhotoSize);
+            if (cached != null) {
+                photo.setImageBitmap(cached);
+                return;
+            }
+
+            photo.setImageDrawable(emptyDishImage);
+            imageLoad = filesRepository.getImageById(photoId, dishPhotoSize, dishPhotoSize)
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribeOn(Schedulers.io())
+                    .subscribe(photo::setImageBitmap, error -> {
+                        // Следующая привязка повторит загрузку.
+                        boundPhotoId = null;
+                    });
+            listImagesDownloadSubscribers.add(imageLoad);
+        }
 
+        /**
+         * Отменить загрузку фотографии и вернуть заглушку.
+         */
+        void cancelImageLoad() {
+            disposeImageLoad();
+            boundPhotoId = null;
+            photo.setImageDrawable(emptyDishImage);
+        }
+
+        private void disposeImageLoad() {
+            if (imageLoad != null) {
+                // Удаление из CompositeDisposable отменяет подписку.
+                listImagesDownloadSubscribers.remove(imageLoad);
+                imageLoad = null;
+            }
+        }
+    }
+}
@@ -18,7 +18,7 @@ import com.google.android.gms.common.logging.Logger;
 import com.google.gson.Gson;
 import com.google.gson.TypeAdapter;
 import com.tamagotchi.restaurantclientapplication.R;
-import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.restaurantclientapplication.data.model.UserCart;
 import com.tamagotchi.restaurantclientapplication.data.repositories.OrderRepository;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModel;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModelFactory;
@@ -31,7 +31,6 @@ import java.util.Calendar;
 import java.util.Currency;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -73,7 +72,7 @@ public class OrdersFragment extends Fragment {
         Button makeOrderButton = ordersFragment.findViewById(R.id.buttonPayment);
 
         makeOrderButton.setOnClickListener(view -> {
-            if (viewModel.getUserMenu().getValue() == null || viewModel.getUserMenu().getValue().isEmpty()) {
+            if (viewModel.getUserMenu().isEmpty()) {
                 viewModel.doOrder()
                         .subscribeOn(Schedulers.io())
                         .observeOn(AndroidSchedulers.mainThread())
@@ -159,6 +158,10 @@ public class OrdersFragment extends Fragment {
 
     private void initSelectedRestaurant() {
         viewModel.getSelectedRestaurant().observe(getViewLifecycleOwner(), restaurant -> {
+            if (restaurant == null) {
+                return;
+            }
+
             setTextInTextView(ordersFragment.findViewById(R.id.orderDetailAddress), restaurant.getAddress());
         });
     }
@@ -177,32 +180,19 @@ public class OrdersFragment extends Fragment {
     }
 
     private int getPayment() {
-        List<FullMenuItem> menu = viewModel.getUserMenu().getValue();
-        if (menu != null && menu.size() > 0) {
-            int forPayment = 0;
-            for (FullMenuItem menuItem : menu) {
-                forPayment += menuItem.getPrice();
-            }
-
-            return forPayment;
-        }
-
-        return 0;
+        return viewModel.getUserMenu().getTotalPrice();
     }
 
     private Map<String, Integer> getMapMenu() {
-        List<FullMenuItem> menu = viewModel.getUserMenu().getValue();
+        UserCart.Snapshot menu = viewModel.getUserMenu();
 
-        if (menu != null && menu.size() > 0) {
+        if (!menu.isEmpty()) {
             Map<String, Integer> selectedMenu = new HashMap<String, Integer>();
 
-            for (FullMenuItem menuItem : menu) {
-                String itemMenuName = menuItem.getDish().getName();
-                if (selectedMenu.containsKey(itemMenuName)) {
-                    selectedMenu.put(itemMenuName, selectedMenu.get(itemMenuName) + 1);
-                } else {
-                    selectedMenu.put(itemMenuName, 1);
-                }
+            for (UserCart.Line line : menu.getLines()) {
+                String itemMenuName = line.getMenuItem().getDish().getName();
+                Integer count = selectedMenu.get(itemMenuName);
+                selectedMenu.put(itemMenuName, count != null ? count + line.getQuantity() : line.getQuantity());
             }
 
             return selectedMenu;
@@ -26,19 +26,26 @@ import com.google.android.gms.maps.OnMapReadyCallback;
 import com.google.android.gms.maps.SupportMapFragment;
 import com.google.android.gms.maps.model.BitmapDescriptorFactory;
 import com.google.android.gms.maps.model.LatLng;
+import com.google.android.gms.maps.model.LatLngBounds;
 import com.google.android.gms.maps.model.Marker;
 import com.google.android.gms.maps.model.MarkerOptions;
 import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.tasks.Task;
 import com.tamagotchi.restaurantclientapplication.R;
 import com.tamagotchi.restaurantclientapplication.data.Result;
+import com.tamagotchi.restaurantclientapplication.services.BootstrapService;
+import com.tamagotchi.restaurantclientapplication.services.GeoIndex;
+import com.tamagotchi.restaurantclientapplication.services.GridClusterer;
+import com.tamagotchi.restaurantclientapplication.services.StartupTracer;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModel;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModelFactory;
 import com.tamagotchi.restaurantclientapplication.ui.slidingpanel.SlidingPanelRestaurants;
 import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 public class RestaurantsFragment extends Fragment implements OnMapReadyCallback, ActivityCompat.OnRequestPermissionsResultCallback, GoogleMap.OnMarkerClickListener {
 
@@ -48,15 +55,35 @@ public class RestaurantsFragment extends Fragment implements OnMapReadyCallback,
     private static final String COURSE_LOCATION = Manifest.permission.ACCESS_COARSE_LOCATION;
     private static final float DEFAULT_ZOOM = 15f;
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1234;
+    private static final double CLUSTER_CELL_SIZE_PX = 64;
+    private static final float CLUSTER_CLICK_ZOOM_STEP = 2f;
+    private static final double VISIBLE_BOUNDS_PADDING = 0.25;
     private Integer lastSelectedMarker = null;
 
     private Location userLocation;
     private List<RestaurantModel> restaurants;
 
+    /**
+     * Индекс ресторанов для поиска ближайшего, строится при получении списка ресторанов.
+     */
+    private GeoIndex<RestaurantModel> restaurantsIndex;
+
     private Boolean mLocationPermissionsGranted = false;
     private Boolean mGPSPermissionsGranted = false;
 
     private GoogleMap mMap;
+
+    /**
+     * Маркеры видимой области по ключу кластера.
+     */
+    private final HashMap<String, Marker> markers = new HashMap<>();
+
+    /**
+     * Группировка ресторанов, находящихся близко друг к другу на текущем приближении.
+     */
+    private final GridClusterer<RestaurantModel> clusterer = new GridClusterer<>(
+            RestaurantModel::getPositionLatitude, RestaurantModel::getPositionLongitude, RestaurantModel::getId,
+            CLUSTER_CELL_SIZE_PX, (int) DEFAULT_ZOOM);
     private FusedLocationProviderClient mFusedLocationProviderClient;
     private View restaurantsFragment;
 
@@ -121,67 +148,177 @@ public class RestaurantsFragment extends Fragment implements OnMapReadyCallback,
     }
 
     private void updateMap() {
+        //Устанавливаем маркер пользователя на карте
+        setCurrentLocation();
+
+        //Активируем кнопку на поиск ближайшего ресторана
+        initNearestMarker();
+
         viewModel.getRestaurants().observe(getViewLifecycleOwner(), result ->
         {
             if (result instanceof Result.Success) {
+                StartupTracer.mark("restaurants.received");
                 List<RestaurantModel> restaurants = (List<RestaurantModel>) ((Result.Success) result).getData();
                 this.restaurants = restaurants;
-                LatLng restaurantPos;
+                this.restaurantsIndex = new GeoIndex<>(restaurants,
+                        RestaurantModel::getPositionLatitude, RestaurantModel::getPositionLongitude);
 
-                HashMap<Integer, Marker> markers = new HashMap();
-                for (int i = 0; i < restaurants.size(); i++) {
-                    RestaurantModel restaurant = restaurants.get(i);
+                renderMarkers();
+            } else {
+                // TODO: обработка ошибки
+            }
+        });
 
-                    restaurantPos = new LatLng(restaurant.getPositionLatitude(), restaurant.getPositionLongitude());
+        // Подписываемся на обновление выбранного маркера.
+        viewModel.getSelectedRestaurant().observe(getViewLifecycleOwner(), selectedRestaurant -> {
+            if (selectedRestaurant == null) {
+                if (userLocation != null) {
+                    mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(userLocation.getLatitude(), userLocation.getLongitude()), DEFAULT_ZOOM));
+                }
+                return;
+            }
 
-                    MarkerOptions markerOptions = new MarkerOptions().position(restaurantPos).title(restaurant.getAddress());
-                    markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED));
+            // Сбрасываем цвет прошлого маркера
+            if (lastSelectedMarker != null) {
+                Marker previous = markers.get(GridClusterer.singleKey(lastSelectedMarker));
 
-                    Marker restaurantMarker = mMap.addMarker(markerOptions);
-                    restaurantMarker.setTag(restaurant); // Добавляем объект рестарана в качестве тега.
-                    markers.put(restaurant.getId(), restaurantMarker);
-                }
+                if (previous != null)
+                    previous.setIcon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED));
+            }
 
-                //Устанавливаем маркер пользователя на карте
-                setCurrentLocation();
+            lastSelectedMarker = selectedRestaurant.getId();
 
-                //Активируем кнопку на поиск ближайшего ресторана
-                initNearestMarker();
+            // Устанавливаем зеленый цвет на текущий маркер, если он уже на карте.
+            // Иначе маркер получит нужный цвет при перерисовке после перемещения камеры.
+            Marker selected = markers.get(GridClusterer.singleKey(lastSelectedMarker));
+            if (selected != null) {
+                selected.setIcon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN));
+            }
 
-                // Подписываемся на обновление выбранного маркера.
-                viewModel.getSelectedRestaurant().observe(this, selectedRestaurant -> {
-                    if (selectedRestaurant == null) {
-                        if (userLocation != null) {
-                            mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(userLocation.getLatitude(), userLocation.getLongitude()), DEFAULT_ZOOM));
-                        }
-                        return;
-                    }
+            // Ресторан, восстановленный из черновика при запуске, не должен уводить карту от пользователя.
+            if (!viewModel.isSelectedRestaurantRestored()) {
+                mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(
+                        new LatLng(selectedRestaurant.getPositionLatitude(), selectedRestaurant.getPositionLongitude()), DEFAULT_ZOOM));
+            }
+        });
 
-                    // Сбрасываем цвет прошлого маркера
-                    if (lastSelectedMarker != null) {
-                        Marker previous = markers.get(lastSelectedMarker);
+        mMap.setOnCameraIdleListener(this::renderMarkers);
+        mMap.setOnMarkerClickListener(this);
+    }
 
-                        if (previous != null)
-                            previous.setIcon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_RED));
-                    }
+    /**
+     * Перерисовать маркеры видимой области карты.
+     * Маркеры сравниваются с уже добавленными по ключу кластера: удаляются только пропавшие маркеры
+     * и добавляются только новые, у оставшихся обновляются только изменившиеся положение и подпись.
+     */
+    private void renderMarkers() {
+        if (mMap == null || restaurants == null) {
+            return;
+        }
 
-                    // Устанавливаем зеленый цвет на текущий маркер.
-                    Marker selected = markers.get(selectedRestaurant.getId());
-                    mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(selected.getPosition(), DEFAULT_ZOOM));
+        LatLngBounds bounds = mMap.getProjection().getVisibleRegion().latLngBounds;
 
-                    if (selected != null) {
-                        selected.setIcon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_GREEN));
-                        lastSelectedMarker = selectedRestaurant.getId();
-                    }
-                });
+        // Расширяем видимую область, чтобы при небольшом сдвиге карты маркеры уже были на месте.
+        double latitudePadding = (bounds.northeast.latitude - bounds.southwest.latitude) * VISIBLE_BOUNDS_PADDING;
+        double longitudeSpan = bounds.northeast.longitude - bounds.southwest.longitude;
+        if (longitudeSpan < 0) {
+            longitudeSpan += 360;
+        }
+        double longitudePadding = Math.min(longitudeSpan * VISIBLE_BOUNDS_PADDING, (360 - longitudeSpan) / 2);
+
+        List<GridClusterer.Cluster<RestaurantModel>> clusters = clusterer.cluster(restaurants,
+                mMap.getCameraPosition().zoom,
+                bounds.southwest.latitude - latitudePadding,
+                normalizeLongitude(bounds.southwest.longitude - longitudePadding),
+                bounds.northeast.latitude + latitudePadding,
+                normalizeLongitude(bounds.northeast.longitude + longitudePadding));
+
+        HashMap<String, GridClusterer.Cluster<RestaurantModel>> visible = new HashMap<>();
+        for (GridClusterer.Cluster<RestaurantModel> cluster : clusters) {
+            visible.put(cluster.getKey(), cluster);
+        }
 
+        Iterator<Map.Entry<String, Marker>> iterator = markers.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Marker> entry = iterator.next();
+            if (!visible.containsKey(entry.getKey())) {
+                entry.getValue().remove();
+                iterator.remove();
+            }
+        }
 
+        for (GridClusterer.Cluster<RestaurantModel> cluster : clusters) {
+            LatLng position = new LatLng(cluster.getLatitude(), cluster.getLongitude());
+            Marker marker = markers.get(cluster.getKey());
+
+            if (marker == null) {
+                marker = mMap.addMarker(createMarkerOptions(cluster, position));
+                markers.put(cluster.getKey(), marker);
             } else {
-                // TODO: обработка ошибки
+                // Ресторан переместился или изменился состав кластера.
+                if (!marker.getPosition().equals(position)) {
+                    marker.setPosition(position);
+                }
+
+                // Изменилось количество ресторанов в кластере или данные ресторана после обновления списка.
+                String title = getMarkerTitle(cluster);
+                if (!title.equals(marker.getTitle())) {
+                    marker.setTitle(title);
+                }
             }
-        });
 
-        mMap.setOnMarkerClickListener(this);
+            if (cluster.isSingle()) {
+                marker.setTag(cluster.getItems().get(0)); // Добавляем объект рестарана в качестве тега.
+            } else {
+                marker.setTag(cluster);
+            }
+        }
+
+        // Первые маркеры на карте - конец трассировки запуска.
+        if (!markers.isEmpty() && StartupTracer.isActive()) {
+            StartupTracer.mark("restaurants.first_markers");
+            BootstrapService.getInstance().dumpStartupTrace();
+        }
+    }
+
+    private MarkerOptions createMarkerOptions(GridClusterer.Cluster<RestaurantModel> cluster, LatLng position) {
+        MarkerOptions markerOptions = new MarkerOptions().position(position);
+
+        if (cluster.isSingle()) {
+            RestaurantModel restaurant = cluster.getItems().get(0);
+            boolean isSelected = lastSelectedMarker != null && lastSelectedMarker.equals(restaurant.getId());
+
+            markerOptions.icon(BitmapDescriptorFactory.defaultMarker(
+                    isSelected ? BitmapDescriptorFactory.HUE_GREEN : BitmapDescriptorFactory.HUE_RED));
+        } else {
+            markerOptions.icon(BitmapDescriptorFactory.defaultMarker(BitmapDescriptorFactory.HUE_AZURE));
+        }
+
+        return markerOptions.title(getMarkerTitle(cluster));
+    }
+
+    /**
+     * Подпись маркера: адрес ресторана или количество ресторанов в кластере.
+     */
+    private static String getMarkerTitle(GridClusterer.Cluster<RestaurantModel> cluster) {
+        if (cluster.isSingle()) {
+            String address = cluster.getItems().get(0).getAddress();
+            return address != null ? address : "";
+        }
+
+        return String.valueOf(cluster.getItems().size());
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude > 180) {
+            return longitude - 360;
+        }
+
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+
+        return longitude;
     }
 
     private void setCurrentLocation() {
@@ -215,26 +352,16 @@ public class RestaurantsFragment extends Fragment implements OnMapReadyCallback,
         }
     }
 
-    //TODO: Криво, косо, но работает. Потом поправить!
     private void initNearestMarker() {
         AppCompatImageButton nearestRestaurant = restaurantsFragment.findViewById(R.id.nearestRestaurant);
         nearestRestaurant.setOnClickListener((view) -> {
-            if (userLocation != null) {
-                Double restaurantPosX = this.restaurants.get(0).getPositionLatitude(), restaurantPosY = this.restaurants.get(0).getPositionLongitude();
-                Double userPosX = this.userLocation.getLatitude(), userPosY = this.userLocation.getLongitude();
-
-                Double distance = Math.sqrt(Math.pow(restaurantPosX - userPosX, 2) + Math.pow(restaurantPosY - userPosY, 2));
-
-                for (int i = 1; i < this.restaurants.size(); i += 1) {
-                    Double tmpDistance = Math.sqrt(Math.pow(this.restaurants.get(i).getPositionLatitude() - userPosX, 2) + Math.pow(this.restaurants.get(i).getPositionLongitude() - userPosY, 2));
-                    if (distance > tmpDistance) {
-                        distance = tmpDistance;
-                        restaurantPosX = this.restaurants.get(i).getPositionLatitude();
-                        restaurantPosY = this.restaurants.get(i).getPositionLongitude();
-                    }
+            if (userLocation != null && restaurantsIndex != null) {
+                RestaurantModel nearest = restaurantsIndex.nearest(userLocation.getLatitude(), userLocation.getLongitude());
+                if (nearest == null) {
+                    return;
                 }
 
-                mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(restaurantPosX, restaurantPosY), DEFAULT_ZOOM));
+                mMap.moveCamera(CameraUpdateFactory.newLatLngZoom(new LatLng(nearest.getPositionLatitude(), nearest.getPositionLongitude()), DEFAULT_ZOOM));
             }
         });
     }
@@ -259,6 +386,13 @@ public class RestaurantsFragment extends Fragment implements OnMapReadyCallback,
 
     @Override
     public boolean onMarkerClick(Marker marker) {
+        // При нажатии на кластер приближаем карту к нему.
+        if (marker.getTag() instanceof GridClusterer.Cluster) {
+            mMap.animateCamera(CameraUpdateFactory.newLatLngZoom(marker.getPosition(),
+                    mMap.getCameraPosition().zoom + CLUSTER_CLICK_ZOOM_STEP));
+            return true;
+        }
+
         // Получаем выбранный ресторан и устанавливаем его в ViewModel
         RestaurantModel currentRestaurant = (RestaurantModel) marker.getTag();
         viewModel.setSelectedRestaurant(currentRestaurant);
@@ -94,6 +94,10 @@ public class SlidingPanelRestaurants extends BottomSheetDialogFragment {
 
     private void initSelectedRestaurant() {
         viewModel.getSelectedRestaurant().observe(getViewLifecycleOwner(), restaurant -> {
+            if (restaurant == null) {
+                return;
+            }
+
             //TODO: Сделано не очень красиво, но пока как решение пойдет
             FilesRepository filesRepository = FilesRepository.getInstance();
 
@@ -102,7 +106,7 @@ public class SlidingPanelRestaurants extends BottomSheetDialogFragment {
             int photoWidth = (int) (photoHeight * 1.25);
 
             for (Integer photoId : restaurant.getPhotos()) {
-                Disposable subscriber = filesRepository.getImageById(photoId)
+                Disposable subscriber = filesRepository.getImageById(photoId, photoWidth, photoHeight)
                         .observeOn(AndroidSchedulers.mainThread())
                         .subscribeOn(Schedulers.io())
                         .subscribe(image -> {
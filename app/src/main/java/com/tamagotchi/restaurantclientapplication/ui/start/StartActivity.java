@@ -5,6 +5,7 @@ import androidx.lifecycle.ViewModelProvider;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.ProgressBar;
 
@@ -12,6 +13,7 @@ import com.tamagotchi.restaurantclientapplication.R;
 import com.tamagotchi.restaurantclientapplication.data.Result;
 import com.tamagotchi.restaurantclientapplication.services.AuthenticationInfoStorageService;
 import com.tamagotchi.restaurantclientapplication.services.BootstrapService;
+import com.tamagotchi.restaurantclientapplication.services.StartupTracer;
 import com.tamagotchi.restaurantclientapplication.ui.BaseActivity;
 import com.tamagotchi.restaurantclientapplication.ui.login.LoginActivity;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainActivity;
@@ -28,6 +30,13 @@ public class StartActivity extends BaseActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
+        // Процесс уже был запущен (теплый запуск), начинаем новую трассировку.
+        if (!StartupTracer.isActive()) {
+            StartupTracer.startLaunch("warm");
+        }
+        StartupTracer.mark("start_activity.create");
+        StartupTracer.begin("start_activity.auth_wait");
+
         setContentView(R.layout.activity_start);
 
         viewModel = new ViewModelProvider(this, new StartViewModelFactory()).get(StartViewModel.class);
@@ -37,6 +46,7 @@ public class StartActivity extends BaseActivity {
         loading = findViewById(R.id.loading);
 
         showProgressBarAndHideAuthButtons();
+        reportFirstFrame();
 
         buttonLogin.setOnClickListener(v -> {
             showLoginActivity(false);
@@ -51,6 +61,8 @@ public class StartActivity extends BaseActivity {
                 return;
             }
 
+            StartupTracer.end("start_activity.auth_wait");
+
             if (isAuthState instanceof Result.Success) {
                 // Открываем главное окно
                 Intent activity2Intent = new Intent(getApplicationContext(), MainActivity.class);
@@ -58,6 +70,24 @@ public class StartActivity extends BaseActivity {
                 finish();
             } else {
                 showAuthButtonsAndHideProgressBar();
+                // Запуск заканчивается экраном входа.
+                BootstrapService.getInstance().dumpStartupTrace();
+            }
+        });
+    }
+
+    /**
+     * Сообщить BootstrapService о первом кадре: перед первой отрисовкой
+     * ставим задачу в очередь главного потока, она выполнится после отрисовки кадра.
+     */
+    private void reportFirstFrame() {
+        View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                decorView.post(() -> BootstrapService.getInstance().onFirstFrame());
+                return true;
             }
         });
     }
@@ -0,0 +1,35 @@
+package com.tamagotchi.restaurantclientapplication.ui.still;
+
+/**
+ * Строка списка заказов с готовым для отображения текстом.
+ * Создается один раз при получении заказа, отображение только копирует поля в view.
+ */
+class OrderRow {
+    private final int orderId;
+    private final String idText;
+    private final String statusText;
+    private final String timeText;
+
+    OrderRow(int orderId, String idText, String statusText, String timeText) {
+        this.orderId = orderId;
+        this.idText = idText;
+        this.statusText = statusText;
+        this.timeText = timeText;
+    }
+
+    int getOrderId() {
+        return orderId;
+    }
+
+    String getIdText() {
+        return idText;
+    }
+
+    String getStatusText() {
+        return statusText;
+    }
+
+    String getTimeText() {
+        return timeText;
+    }
+}
@@ -0,0 +1,55 @@
+package com.tamagotchi.restaurantclientapplication.ui.still;
+
+import android.content.Context;
+import android.icu.text.SimpleDateFormat;
+import android.util.Log;
+
+import com.tamagotchi.restaurantclientapplication.R;
+import com.tamagotchi.restaurantclientapplication.services.Iso8601;
+import com.tamagotchi.restaurantclientapplication.services.OrderStatusToStringConverter;
+import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.enums.StaffStatus;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * Создание строк списка заказов: разбор времени посещения и форматирование текста.
+ * Форматтер не потокобезопасный, поэтому у каждой фабрики свой и она используется из одного потока.
+ */
+class OrderRowFactory {
+
+    private static final String TAG = "OrderRowFactory";
+    private static final String textError = "???";
+
+    private final OrderStatusToStringConverter statusConverter;
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("dd.MM.yyyy kk:mm");
+    private final String staffNotifiedText;
+
+    OrderRowFactory(Context context) {
+        statusConverter = new OrderStatusToStringConverter(context);
+        staffNotifiedText = " (" + context.getResources().getString(R.string.staff_notified_status) + ")";
+    }
+
+    OrderRow create(OrderModel order) {
+        String orderStatusString = order.getOrderStatus() != null ?
+                statusConverter.convert(order.getOrderStatus()) : textError;
+
+        if (order.getOrderCooksStatus() == StaffStatus.Notified && order.getOrderWaitersStatus() == StaffStatus.Notified) {
+            orderStatusString += staffNotifiedText;
+        }
+
+        String timeString = textError;
+        try {
+            long startTime = Iso8601.parse(order.getVisitTime().getStart());
+            timeString = timeFormat.format(new Date(startTime));
+        } catch (IllegalArgumentException | ParseException ex) {
+            Log.e(TAG, "Can't convert visit time", ex);
+        }
+
+        return new OrderRow(order.getId() != null ? order.getId() : 0,
+                order.getId() != null ? order.getId().toString() : textError,
+                orderStatusString,
+                timeString);
+    }
+}
@@ -1,8 +1,6 @@
 package com.tamagotchi.restaurantclientapplication.ui.still;
 
 import android.content.Context;
-import android.icu.text.SimpleDateFormat;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,32 +8,21 @@ import android.widget.ArrayAdapter;
 import android.widget.TextView;
 
 import com.tamagotchi.restaurantclientapplication.R;
-import com.tamagotchi.restaurantclientapplication.services.OrderStatusToStringConverter;
-import com.tamagotchi.restaurantclientapplication.services.RfcToCalendarConverter;
-import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
-import com.tamagotchi.tamagotchiserverprotocol.models.enums.StaffStatus;
 
-import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Calendar;
 
-public class OrdersAdapterListView extends ArrayAdapter<OrderModel> {
+public class OrdersAdapterListView extends ArrayAdapter<OrderRow> {
 
     private String TAG = "OrdersAdapterListView";
 
-    private OrderStatusToStringConverter statusConverter;
-    private static SimpleDateFormat timeFormat = new SimpleDateFormat("dd.MM.yyyy kk:mm");
-    private static final String textError = "???";
-
-    public OrdersAdapterListView(Context context, ArrayList<OrderModel> orders) {
+    OrdersAdapterListView(Context context, ArrayList<OrderRow> orders) {
         super(context, R.layout.still_item, orders);
-        statusConverter = new OrderStatusToStringConverter(context);
     }
 
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
         // Get the data item for this position
-        OrderModel order = getItem(position);
+        OrderRow order = getItem(position);
         if (order == null)
             throw new RuntimeException("Can not be null");
 
@@ -53,27 +40,10 @@ public class OrdersAdapterListView extends ArrayAdapter<OrderModel> {
             viewHolder = (FullOrderHolder) convertView.getTag();
         }
 
-        // Populate the data from the data object via the viewHolder object
-        // into the template view.
-        String orderStatusString = order.getOrderStatus() != null ?
-                statusConverter.convert(order.getOrderStatus()) : textError;
-
-        if (order.getOrderCooksStatus() == StaffStatus.Notified && order.getOrderWaitersStatus() == StaffStatus.Notified) {
-            orderStatusString += " (" + getContext().getResources().getString(R.string.staff_notified_status) + ")";
-        }
-
-        viewHolder.state.setText(orderStatusString);
-        viewHolder.id.setText(order.getId() != null ? order.getId().toString() : textError);
-
-        String timeString = textError;
-        try {
-            Calendar startTime = RfcToCalendarConverter.convert(order.getVisitTime().getStart());
-            timeString = timeFormat.format(startTime.getTime());
-        } catch (IllegalArgumentException | ParseException ex) {
-            Log.e(TAG, "Can't convert visit time", ex);
-        }
-
-        viewHolder.time.setText(timeString);
+        // Текст строки подготовлен при получении заказа (см. OrderRowFactory).
+        viewHolder.state.setText(order.getStatusText());
+        viewHolder.id.setText(order.getIdText());
+        viewHolder.time.setText(order.getTimeText());
 
         // Return the completed view to render on screen
         return convertView;
@@ -18,6 +18,7 @@ import androidx.fragment.app.Fragment;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 import com.tamagotchi.restaurantclientapplication.R;
+import com.tamagotchi.restaurantclientapplication.data.model.OrdersUpdate;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModel;
 import com.tamagotchi.restaurantclientapplication.ui.main.MainViewModelFactory;
 import com.tamagotchi.restaurantclientapplication.ui.slidingpanel.SlidingPanelStillAboutMe;
@@ -27,6 +28,8 @@ import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
 import androidx.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 
 public class StillFragment extends Fragment {
@@ -37,6 +40,18 @@ public class StillFragment extends Fragment {
     private MainViewModel viewModel;
     private ListView ordersListView;
 
+    /**
+     * Отображаемые строки заказов, общий список с адаптером.
+     */
+    private final ArrayList<OrderRow> orders = new ArrayList<>();
+    private OrdersAdapterListView ordersAdapter;
+
+    /**
+     * Подготовленные строки заказов по id заказа. Строка пересоздается только при изменении заказа.
+     */
+    private final HashMap<Integer, OrderRow> rowsById = new HashMap<>();
+    private OrderRowFactory rowFactory;
+
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
@@ -103,17 +118,93 @@ public class StillFragment extends Fragment {
         });
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+
+        // Заказы синхронизируются только пока список виден.
+        viewModel.startOrdersSync();
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+
+        viewModel.stopOrdersSync();
+    }
+
     private void initListOrders() {
         ordersListView = stillFragment.findViewById(R.id.userOrdersList);
+        ordersAdapter = null;
+        rowFactory = new OrderRowFactory(requireContext());
+        rowsById.clear();
         initOrdersSubscribe();
     }
 
     private void initOrdersSubscribe() {
-        viewModel.getUserOrders().observe(getViewLifecycleOwner(),this::initListViewAdapter);
-        viewModel.refreshOrders();
+        viewModel.getUserOrders().observe(getViewLifecycleOwner(), this::updateListView);
+    }
+
+    /**
+     * Обновить список заказов.
+     * Если изменился состав заказов, то список перерисовывается полностью,
+     * иначе перерисовываются только видимые строки измененных заказов.
+     * @param update изменения заказов.
+     */
+    private void updateListView(OrdersUpdate update) {
+        for (Integer changedId : update.getChangedIds()) {
+            rowsById.remove(changedId);
+        }
+
+        if (ordersAdapter == null || update.isStructureChanged()) {
+            orders.clear();
+            for (OrderModel order : update.getOrders()) {
+                orders.add(getRow(order));
+            }
+
+            // Убираем строки заказов, которых больше нет в списке.
+            HashSet<Integer> displayedIds = new HashSet<>(orders.size());
+            for (OrderRow row : orders) {
+                displayedIds.add(row.getOrderId());
+            }
+            rowsById.keySet().retainAll(displayedIds);
+
+            if (ordersAdapter == null) {
+                ordersAdapter = new OrdersAdapterListView(this.getContext(), orders);
+                ordersListView.setAdapter(ordersAdapter);
+            } else {
+                ordersAdapter.notifyDataSetChanged();
+            }
+            return;
+        }
+
+        int firstVisible = ordersListView.getFirstVisiblePosition();
+        int lastVisible = ordersListView.getLastVisiblePosition();
+
+        List<OrderModel> updatedOrders = update.getOrders();
+        for (int position = 0; position < updatedOrders.size(); position++) {
+            OrderModel order = updatedOrders.get(position);
+            if (!update.getChangedIds().contains(order.getId())) {
+                continue;
+            }
+
+            orders.set(position, getRow(order));
+
+            // Невидимые строки получат новые данные при прокрутке.
+            if (position >= firstVisible && position <= lastVisible) {
+                View row = ordersListView.getChildAt(position - firstVisible);
+                ordersAdapter.getView(position, row, ordersListView);
+            }
+        }
     }
 
-    private void initListViewAdapter(List<OrderModel> orders) {
-        ordersListView.setAdapter(new OrdersAdapterListView(this.getContext(), new ArrayList<>(orders)));
+    private OrderRow getRow(OrderModel order) {
+        OrderRow row = rowsById.get(order.getId());
+        if (row == null) {
+            row = rowFactory.create(order);
+            rowsById.put(order.getId(), row);
+        }
+
+        return row;
     }
 }
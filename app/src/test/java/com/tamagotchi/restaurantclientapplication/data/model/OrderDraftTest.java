@@ -0,0 +1,115 @@
+package com.tamagotchi.restaurantclientapplication.data.model;
+
+import com.google.gson.Gson;
+import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.RestaurantModel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OrderDraftTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void writeTo_readFrom_roundTrip() throws IOException {
+        DishModel soup = gson.fromJson("{\"id\":7}", DishModel.class);
+        DishModel tea = gson.fromJson("{\"id\":8}", DishModel.class);
+        List<FullMenuItem> menu = Arrays.asList(
+                new FullMenuItem(1, 250, false, soup),
+                new FullMenuItem(2, 300, false, soup),
+                new FullMenuItem(3, 50, true, tea));
+
+        Map<Integer, Integer> cart = new LinkedHashMap<>();
+        cart.put(3, 2);
+        cart.put(1, 1);
+
+        OrderDraft draft = new OrderDraft(1000, 42, gson.fromJson("{\"id\":5}", RestaurantModel.class),
+                menu, cart, 2000, 4);
+
+        OrderDraft restored = OrderDraft.readFrom(new DataInputStream(new ByteArrayInputStream(toBytes(draft))), gson);
+
+        assertEquals(1000, restored.getSavedAt());
+        assertEquals(42, restored.getUserId());
+        assertEquals(5, restored.getRestaurant().getId());
+        assertEquals(2000, restored.getVisitTime());
+        assertEquals(4, restored.getNumberOfVisitors());
+        assertEquals(3, restored.getMenu().size());
+        assertEquals(2, restored.getMenu().get(1).getId());
+        assertEquals(300, restored.getMenu().get(1).getPrice());
+        assertTrue(restored.getMenu().get(2).isDeleted());
+        assertEquals(8, restored.getMenu().get(2).getDish().getId());
+        // Одно блюдо записывается один раз и восстанавливается одним экземпляром.
+        assertSame(restored.getMenu().get(0).getDish(), restored.getMenu().get(1).getDish());
+        assertEquals(Arrays.asList(3, 1), Arrays.asList(restored.getCart().keySet().toArray()));
+
+        UserCart.Snapshot snapshot = restored.restoreCart().snapshot();
+        assertEquals(3, snapshot.getTotalQuantity());
+        assertEquals(350, snapshot.getTotalPrice());
+        assertEquals(2, snapshot.getQuantity(3));
+    }
+
+    @Test
+    public void restoreCart_skipsItemsMissingFromMenu() {
+        DishModel dish = gson.fromJson("{\"id\":7}", DishModel.class);
+        Map<Integer, Integer> cart = new LinkedHashMap<>();
+        cart.put(1, 1);
+        cart.put(9, 3);
+
+        OrderDraft draft = new OrderDraft(0, 1, null, Arrays.asList(new FullMenuItem(1, 100, false, dish)), cart, 0, 1);
+
+        assertEquals(1, draft.restoreCart().snapshot().getTotalQuantity());
+    }
+
+    @Test
+    public void readFrom_rejectsTruncatedData() throws IOException {
+        DishModel dish = gson.fromJson("{\"id\":7}", DishModel.class);
+        OrderDraft draft = new OrderDraft(0, 1, gson.fromJson("{\"id\":5}", RestaurantModel.class),
+                Arrays.asList(new FullMenuItem(1, 100, false, dish)), new LinkedHashMap<>(), 0, 1);
+        byte[] bytes = toBytes(draft);
+
+        try {
+            OrderDraft.readFrom(new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 3)), gson);
+            fail("Truncated draft must not be read");
+        } catch (IOException expected) {
+        }
+    }
+
+    @Test
+    public void readFrom_rejectsPreviousVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // Черновик версии 1 не содержит пользователя и не должен восстанавливаться.
+            out.writeInt(1);
+            out.writeLong(0);
+        }
+
+        try {
+            OrderDraft.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), gson);
+            fail("Draft without user must not be read");
+        } catch (IOException expected) {
+        }
+    }
+
+    private byte[] toBytes(OrderDraft draft) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            draft.writeTo(out, gson);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.tamagotchi.restaurantclientapplication.data.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UserCartTest {
+
+    private final FullMenuItem soup = new FullMenuItem(1, 250, false, null);
+    private final FullMenuItem tea = new FullMenuItem(2, 50, false, null);
+    private final FullMenuItem cake = new FullMenuItem(3, 120, false, null);
+
+    @Test
+    public void add_remove_updatesTotals() {
+        UserCart cart = new UserCart();
+        cart.add(soup);
+        cart.add(tea);
+        cart.add(soup);
+
+        assertEquals(2, cart.getQuantity(1));
+        assertEquals(1, cart.getQuantity(2));
+        assertEquals(0, cart.getQuantity(3));
+        assertEquals(3, cart.snapshot().getTotalQuantity());
+        assertEquals(550, cart.snapshot().getTotalPrice());
+
+        assertTrue(cart.remove(soup));
+        assertEquals(1, cart.getQuantity(1));
+        assertEquals(2, cart.snapshot().getTotalQuantity());
+        assertEquals(300, cart.snapshot().getTotalPrice());
+
+        // Последний экземпляр удаляет строку корзины.
+        assertTrue(cart.remove(tea));
+        assertEquals(0, cart.getQuantity(2));
+        assertEquals(1, cart.snapshot().getLines().size());
+    }
+
+    @Test
+    public void remove_absentItem_keepsCart() {
+        UserCart cart = new UserCart();
+        cart.add(soup);
+        UserCart.Snapshot before = cart.snapshot();
+
+        assertFalse(cart.remove(tea));
+
+        assertSame(before, cart.snapshot());
+        assertEquals(1, cart.snapshot().getTotalQuantity());
+        assertEquals(250, cart.snapshot().getTotalPrice());
+    }
+
+    @Test
+    public void clear_resetsTotals() {
+        UserCart cart = new UserCart();
+        cart.add(soup);
+        cart.add(cake);
+
+        cart.clear();
+
+        assertTrue(cart.snapshot().isEmpty());
+        assertEquals(0, cart.snapshot().getTotalPrice());
+        assertEquals(0, cart.snapshot().getLines().size());
+        assertEquals(0, cart.getQuantity(1));
+    }
+
+    @Test
+    public void snapshot_isCachedUntilChange() {
+        UserCart cart = new UserCart();
+        cart.add(soup);
+
+        UserCart.Snapshot first = cart.snapshot();
+        assertSame(first, cart.snapshot());
+
+        cart.add(tea);
+        UserCart.Snapshot second = cart.snapshot();
+        assertNotSame(first, second);
+        assertSame(second, cart.snapshot());
+
+        // Старый снимок не меняется вместе с корзиной.
+        assertEquals(1, first.getTotalQuantity());
+        assertEquals(0, first.getQuantity(2));
+        assertEquals(2, second.getTotalQuantity());
+
+        cart.remove(tea);
+        assertNotSame(second, cart.snapshot());
+        assertEquals(2, second.getTotalQuantity());
+    }
+
+    @Test
+    public void snapshot_keepsInsertionOrder() {
+        UserCart cart = new UserCart();
+        cart.add(cake);
+        cart.add(soup);
+        cart.add(tea);
+        cart.add(cake);
+
+        List<UserCart.Line> lines = cart.snapshot().getLines();
+        assertEquals(3, lines.get(0).getMenuItem().getId());
+        assertEquals(2, lines.get(0).getQuantity());
+        assertEquals(1, lines.get(1).getMenuItem().getId());
+        assertEquals(2, lines.get(2).getMenuItem().getId());
+        assertEquals(Arrays.asList(3, 3, 1, 2), cart.snapshot().getMenuItemIds());
+    }
+}
@@ -0,0 +1,65 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import com.tamagotchi.restaurantclientapplication.data.exceptions.ConflictException;
+import com.tamagotchi.restaurantclientapplication.data.exceptions.NotFoundException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import io.reactivex.rxjava3.core.Completable;
+import okhttp3.ResponseBody;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HttpErrorMapperTest {
+
+    private static HttpException httpError(int code) {
+        return new HttpException(Response.error(code, ResponseBody.create(null, "")));
+    }
+
+    @Test
+    public void map_knownCode_returnsAppException() {
+        assertTrue(HttpErrorMapper.DEFAULT.map(httpError(404)) instanceof NotFoundException);
+        assertTrue(HttpErrorMapper.DEFAULT.map(httpError(409)) instanceof ConflictException);
+    }
+
+    @Test
+    public void map_overriddenCode_usesOverride() {
+        HttpErrorMapper mapper = HttpErrorMapper.DEFAULT.on(404, ConflictException::new);
+
+        assertTrue(mapper.map(httpError(404)) instanceof ConflictException);
+        assertTrue(HttpErrorMapper.DEFAULT.map(httpError(404)) instanceof NotFoundException);
+    }
+
+    @Test
+    public void map_exception_isPassedThrough() {
+        HttpException unknownCode = httpError(500);
+        Exception serverFault = new Exception("Server fault. Check the server.");
+        IOException network = new IOException("timeout");
+
+        assertSame(unknownCode, HttpErrorMapper.DEFAULT.map(unknownCode));
+        assertSame(serverFault, HttpErrorMapper.DEFAULT.map(serverFault));
+        assertSame(network, HttpErrorMapper.DEFAULT.map(network));
+    }
+
+    @Test
+    public void map_error_isWrapped() {
+        StackOverflowError error = new StackOverflowError();
+
+        Exception mapped = HttpErrorMapper.DEFAULT.map(error);
+
+        assertSame(error, mapped.getCause());
+    }
+
+    @Test
+    public void completable_keepsMessage() {
+        Completable.error(new Exception("Server fault. Check the server."))
+                .compose(HttpErrorMapper.DEFAULT.completable())
+                .test()
+                .assertError(error -> "Server fault. Check the server.".equals(error.getMessage()));
+    }
+}
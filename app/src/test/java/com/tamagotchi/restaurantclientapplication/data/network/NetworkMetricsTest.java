@@ -0,0 +1,96 @@
+package com.tamagotchi.restaurantclientapplication.data.network;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkMetricsTest {
+
+    @Test
+    public void toTemplate_replacesNumericSegments() {
+        assertEquals("GET /api/files/{id}", NetworkMetrics.toTemplate("GET", "/api/files/42"));
+        assertEquals("GET /api/restaurants/{id}/menu/{id}", NetworkMetrics.toTemplate("GET", "/api/restaurants/7/menu/13"));
+        assertEquals("GET /api/dishes", NetworkMetrics.toTemplate("GET", "/api/dishes"));
+        assertEquals("POST /api/orders/", NetworkMetrics.toTemplate("POST", "/api/orders/"));
+        assertEquals("GET /api/v2/dishes", NetworkMetrics.toTemplate("GET", "/api/v2/dishes"));
+        assertEquals("GET /", NetworkMetrics.toTemplate("GET", "/"));
+    }
+
+    @Test
+    public void histogram_percentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(3);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            // Логнормальное распределение задержек около 100 мс.
+            values[i] = (long) Math.exp(Math.log(100_000) + random.nextGaussian());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 95, 99, 100}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.getPercentile(percentile);
+            assertTrue(percentile + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(percentile + ": " + actual + " > " + expected, actual <= expected + expected / LatencyHistogram.SUB_BUCKETS);
+        }
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+    }
+
+    @Test
+    public void histogram_bucketsCoverAllValues() {
+        for (long value = 0; value < 100_000; value++) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(value <= LatencyHistogram.bucketUpperBound(index));
+            assertTrue(index == 0 || value > LatencyHistogram.bucketUpperBound(index - 1));
+        }
+
+        // Значения больше максимума попадают в последнюю корзину.
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(LatencyHistogram.MAX_VALUE * 2);
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void writeTo_groupsByTemplate() throws IOException {
+        NetworkMetrics metrics = new NetworkMetrics();
+        metrics.record("GET", "/api/files/1", 10_000, 0, 1000, false, null);
+        metrics.record("GET", "/api/files/2", 30_000, 0, 3000, false, null);
+        metrics.record("GET", "/api/files/3", 1_000, 0, 0, true, null);
+        metrics.record("GET", "/api/menu", 50_000, 0, 0, false, "500");
+        metrics.record("GET", "/api/menu", 60_000, 0, 0, false, NetworkMetrics.IO_ERROR);
+
+        StringBuilder out = new StringBuilder();
+        metrics.writeTo(out);
+        List<String> lines = Arrays.asList(out.toString().split("\n"));
+
+        assertEquals(3, lines.size());
+        // Перцентили округляются вверх до границы корзины гистограммы, максимум точный.
+        assertTrue(lines.get(1).startsWith("GET /api/files/{id}\t3\t0\t1\t"));
+        assertTrue(lines.get(1).endsWith("\t30.0\t0\t4000\t"));
+        assertTrue(lines.get(2).startsWith("GET /api/menu\t2\t2\t0\t"));
+        assertTrue(lines.get(2).endsWith("\t500:1,io:1"));
+    }
+
+    @Test
+    public void writeTo_listsUnmeasuredApis() throws IOException {
+        NetworkMetrics metrics = new NetworkMetrics();
+        metrics.record("GET", "/api/menu", 50_000, 0, 0, false, null);
+        metrics.setUnmeasured("users", "feedback");
+
+        StringBuilder out = new StringBuilder();
+        metrics.writeTo(out);
+        List<String> lines = Arrays.asList(out.toString().split("\n"));
+
+        assertEquals(3, lines.size());
+        assertEquals("# not measured: users, feedback", lines.get(2));
+    }
+}
@@ -0,0 +1,44 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameStatsTest {
+
+    private static final long FRAME_INTERVAL = 16_666_667;
+
+    @Test
+    public void writeTo_countsSlowAndFrozenFramesPerScreen() throws IOException {
+        FrameStats stats = new FrameStats();
+        for (int i = 0; i < 8; i++) {
+            stats.record("Menu", 8_000_000, FRAME_INTERVAL);
+        }
+        stats.record("Menu", 20_000_000, FRAME_INTERVAL);
+        stats.record("Menu", 800_000_000, FRAME_INTERVAL);
+        stats.recordLost("Menu", 3);
+        stats.record("Restaurant", 10_000_000, FRAME_INTERVAL);
+
+        StringBuilder out = new StringBuilder();
+        stats.writeTo(out);
+        String[] lines = out.toString().split("\n");
+
+        assertEquals(3, lines.length);
+        String[] menu = lines[1].split("\t");
+        assertEquals("Menu", menu[0]);
+        assertEquals("10", menu[1]);
+        assertEquals("2", menu[2]);
+        assertEquals("20.0", menu[3]);
+        assertEquals("1", menu[4]);
+        assertEquals("3", menu[5]);
+        assertEquals("800.0", menu[10]);
+        assertEquals("Restaurant", lines[2].split("\t")[0]);
+
+        stats.reset();
+        out.setLength(0);
+        stats.writeTo(out);
+        assertEquals(1, out.toString().split("\n").length);
+    }
+}
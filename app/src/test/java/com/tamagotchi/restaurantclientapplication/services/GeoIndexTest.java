@@ -0,0 +1,121 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GeoIndexTest {
+
+    private static class Point {
+        final double latitude;
+        final double longitude;
+
+        Point(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    private static GeoIndex<Point> index(List<Point> points) {
+        return new GeoIndex<>(points, point -> point.latitude, point -> point.longitude);
+    }
+
+    private static List<Point> randomPoints(Random random, int count) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180));
+        }
+        return points;
+    }
+
+    private static List<Point> sortedByDistance(List<Point> points, double latitude, double longitude) {
+        List<Point> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparingDouble(point ->
+                GeoIndex.distanceMeters(latitude, longitude, point.latitude, point.longitude)));
+        return sorted;
+    }
+
+    @Test
+    public void emptyIndex_returnsNothing() {
+        GeoIndex<Point> index = index(Collections.emptyList());
+
+        assertNull(index.nearest(59.9, 30.3));
+        assertTrue(index.nearest(59.9, 30.3, 3).isEmpty());
+        assertTrue(index.withinRadius(59.9, 30.3, 1000).isEmpty());
+    }
+
+    @Test
+    public void distanceMeters_matchesKnownDistance() {
+        // Санкт-Петербург - Москва, около 634 км.
+        double distance = GeoIndex.distanceMeters(59.9386, 30.3141, 55.7558, 37.6173);
+
+        assertEquals(634_000, distance, 5_000);
+    }
+
+    @Test
+    public void nearest_acrossAntimeridian() {
+        Point east = new Point(0, 179.9);
+        Point far = new Point(0, 170);
+        GeoIndex<Point> index = index(Arrays.asList(far, east));
+
+        assertEquals(east, index.nearest(0, -179.9));
+    }
+
+    @Test
+    public void nearest_nearPole_usesGreatCircleDistance() {
+        // По разнице координат точка b ближе, но по поверхности ближе точка a за полюсом.
+        Point a = new Point(89.9, 180);
+        Point b = new Point(89.0, 0);
+        GeoIndex<Point> index = index(Arrays.asList(a, b));
+
+        assertEquals(a, index.nearest(89.9, 0));
+    }
+
+    @Test
+    public void nearestK_matchesBruteForce() {
+        Random random = new Random(42);
+        List<Point> points = randomPoints(random, 500);
+        GeoIndex<Point> index = index(points);
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+
+            List<Point> expected = sortedByDistance(points, latitude, longitude).subList(0, 5);
+
+            assertEquals(expected, index.nearest(latitude, longitude, 5));
+            assertEquals(expected.get(0), index.nearest(latitude, longitude));
+        }
+    }
+
+    @Test
+    public void withinRadius_matchesBruteForce() {
+        Random random = new Random(7);
+        List<Point> points = randomPoints(random, 500);
+        GeoIndex<Point> index = index(points);
+        double radius = 1_500_000;
+
+        for (int i = 0; i < 50; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+
+            List<Point> expected = new ArrayList<>();
+            for (Point point : sortedByDistance(points, latitude, longitude)) {
+                if (GeoIndex.distanceMeters(latitude, longitude, point.latitude, point.longitude) <= radius) {
+                    expected.add(point);
+                }
+            }
+
+            assertEquals(expected, index.withinRadius(latitude, longitude, radius));
+        }
+    }
+}
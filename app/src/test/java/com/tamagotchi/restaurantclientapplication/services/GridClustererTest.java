@@ -0,0 +1,139 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GridClustererTest {
+
+    private static class Point {
+        final int id;
+        final double latitude;
+        final double longitude;
+
+        Point(int id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    /**
+     * Ячейка размером с тайл: на уровне приближения z по долготе 2^z ячеек.
+     */
+    private static GridClusterer<Point> clusterer() {
+        return new GridClusterer<>(point -> point.latitude, point -> point.longitude, point -> point.id, 256, 12);
+    }
+
+    private static List<GridClusterer.Cluster<Point>> clusterWorld(List<Point> points, float zoom) {
+        return clusterer().cluster(points, zoom, -85, -180, 85, 180);
+    }
+
+    private static List<Set<Integer>> groups(List<GridClusterer.Cluster<Point>> clusters) {
+        List<Set<Integer>> groups = new ArrayList<>();
+        for (GridClusterer.Cluster<Point> cluster : clusters) {
+            Set<Integer> ids = new HashSet<>();
+            for (Point point : cluster.getItems()) {
+                ids.add(point.id);
+            }
+            groups.add(ids);
+        }
+        return groups;
+    }
+
+    private static Set<String> keys(List<GridClusterer.Cluster<Point>> clusters) {
+        Set<String> keys = new HashSet<>();
+        for (GridClusterer.Cluster<Point> cluster : clusters) {
+            keys.add(cluster.getKey());
+        }
+        return keys;
+    }
+
+    private static Set<Integer> ids(Integer... ids) {
+        return new HashSet<>(Arrays.asList(ids));
+    }
+
+    private final List<Point> points = Arrays.asList(
+            new Point(1, 1, 10),
+            new Point(2, 1, 10.5),
+            new Point(3, 1, 40));
+
+    @Test
+    public void cluster_groupsPointsPerCell_atSeveralZooms() {
+        // Ячейки по 90 градусов: все точки в одной ячейке.
+        List<Set<Integer>> zoom2 = groups(clusterWorld(points, 2));
+        assertEquals(1, zoom2.size());
+        assertTrue(zoom2.contains(ids(1, 2, 3)));
+
+        // Ячейки по 22.5 градуса: дальняя точка отдельно.
+        List<Set<Integer>> zoom4 = groups(clusterWorld(points, 4.7f));
+        assertEquals(2, zoom4.size());
+        assertTrue(zoom4.contains(ids(1, 2)));
+        assertTrue(zoom4.contains(ids(3)));
+
+        // Ячейки по 0.35 градуса: все точки отдельно.
+        List<Set<Integer>> zoom10 = groups(clusterWorld(points, 10));
+        assertEquals(3, zoom10.size());
+    }
+
+    @Test
+    public void cluster_atMaxClusterZoom_returnsSingles() {
+        List<GridClusterer.Cluster<Point>> clusters = clusterWorld(
+                Arrays.asList(new Point(1, 1, 10), new Point(2, 1, 10)), 12);
+
+        assertEquals(2, clusters.size());
+        assertTrue(clusters.get(0).isSingle());
+        assertEquals(new HashSet<>(Arrays.asList(GridClusterer.singleKey(1), GridClusterer.singleKey(2))), keys(clusters));
+    }
+
+    @Test
+    public void cluster_keysAreStableAcrossCalls() {
+        Set<String> first = keys(clusterWorld(points, 4));
+
+        List<Point> shuffled = new ArrayList<>(points);
+        Collections.reverse(shuffled);
+
+        assertEquals(first, keys(clusterWorld(points, 4)));
+        assertEquals(first, keys(clusterWorld(shuffled, 4)));
+        assertTrue(first.contains(GridClusterer.singleKey(3)));
+
+        // Ключ группы не зависит от состава ячейки.
+        List<Point> more = new ArrayList<>(points);
+        more.add(new Point(4, 1.1, 10.2));
+        Set<String> withMore = keys(clusterWorld(more, 4));
+        assertEquals(first, withMore);
+    }
+
+    @Test
+    public void cluster_nearDateLine() {
+        List<Point> points = Arrays.asList(
+                new Point(1, 1, 180),
+                new Point(2, 1, -180),
+                new Point(3, 1, 179.9),
+                new Point(4, 1, -179.9),
+                new Point(5, 1, 160));
+
+        // Видимая область пересекает линию перемены дат.
+        List<GridClusterer.Cluster<Point>> clusters = clusterer().cluster(points, 4, -10, 170, 10, -170);
+        List<Set<Integer>> groups = groups(clusters);
+
+        // Долготы 180 и -180 в одной ячейке, точка за западной границей не видна.
+        assertEquals(2, groups.size());
+        assertTrue(groups.contains(ids(1, 2, 4)));
+        assertTrue(groups.contains(ids(3)));
+
+        // Центр кластера остается у линии перемены дат.
+        for (GridClusterer.Cluster<Point> cluster : clusters) {
+            assertTrue(Math.abs(cluster.getLongitude()) > 179.8);
+            assertTrue(Math.abs(cluster.getLongitude()) <= 180);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class HashServiceTest {
+
+    @Test
+    public void md5Hex_knownValues() {
+        // RFC 1321, A.5
+        assertEquals("d41d8cd98f00b204e9800998ecf8427e", HashService.md5Hex(""));
+        assertEquals("900150983cd24fb0d6963f7d28e17f72", HashService.md5Hex("abc"));
+        assertEquals("f96b697d7cb7938d525a2f31aaf161d0", HashService.md5Hex("message digest"));
+    }
+
+    @Test
+    public void md5Hex_keepsLeadingZeros() {
+        // Хэш начинается с нуля, BigInteger.toString(16) потерял бы его.
+        assertEquals("0cc175b9c0f1b6a831c399e269772661", HashService.md5Hex("a"));
+    }
+
+    @Test
+    public void md5Hex_matchesMessageDigest() throws Exception {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                // Латиница и кириллица.
+                builder.append(random.nextBoolean() ? (char) ('a' + random.nextInt(26)) : (char) ('а' + random.nextInt(32)));
+            }
+            String text = builder.toString();
+
+            byte[] digest = MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8));
+            String expected = String.format("%032x", new BigInteger(1, digest));
+            assertEquals(expected, HashService.md5Hex(text));
+        }
+    }
+
+    @Test
+    public void md5Hex_stream() throws IOException {
+        byte[] data = new byte[100_000];
+        new Random(2).nextBytes(data);
+
+        assertEquals(HashService.toHex(HashService.newMd5().digest(data)),
+                HashService.md5Hex(new ByteArrayInputStream(data)));
+        assertEquals(HashService.md5Hex("abc"),
+                HashService.md5Hex(new ByteArrayInputStream("abc".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void toHex() {
+        assertEquals("", HashService.toHex(new byte[0]));
+        assertEquals("00017f80ff", HashService.toHex(new byte[]{0, 1, 127, -128, -1}));
+    }
+}
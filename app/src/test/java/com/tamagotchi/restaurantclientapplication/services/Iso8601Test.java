@@ -0,0 +1,80 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class Iso8601Test {
+
+    @Test
+    public void parse_utc() throws ParseException {
+        assertEquals(0L, Iso8601.parse("1970-01-01T00:00:00Z"));
+        assertEquals(1590935400000L, Iso8601.parse("2020-05-31T14:30:00Z"));
+    }
+
+    @Test
+    public void parse_offsetAndFraction() throws ParseException {
+        assertEquals(1590935400123L, Iso8601.parse("2020-05-31T17:30:00.123+03:00"));
+        assertEquals(1590935400120L, Iso8601.parse("2020-05-31T17:30:00.12+0300"));
+        assertEquals(1590935400123L, Iso8601.parse("2020-05-31T10:30:00.123456789-04:00"));
+        assertEquals(1590935400000L, Iso8601.parse("2020-05-31T14:30Z"));
+    }
+
+    @Test
+    public void parse_matchesJavaTime() throws ParseException {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10000; i++) {
+            long millis = (long) (random.nextDouble() * 4_000_000_000_000L);
+            int offsetMinutes = (random.nextInt(28 * 60) - 14 * 60) / 15 * 15;
+            String text = OffsetDateTime.ofInstant(new Date(millis).toInstant(), ZoneOffset.ofTotalSeconds(offsetMinutes * 60))
+                    .toString();
+
+            assertEquals(text, OffsetDateTime.parse(text).toInstant().toEpochMilli(), Iso8601.parse(text));
+        }
+    }
+
+    @Test
+    public void parse_invalid() {
+        String[] invalid = {
+                "", "2020-05-31", "2020-05-31T14:30:00", "2020-13-01T00:00:00Z", "2019-02-29T00:00:00Z",
+                "2020-05-31T24:00:00Z", "2020-05-31T14:30:00.Z", "2020-05-31T14:30:00Zx", "2020/05/31T14:30:00Z",
+                "2020-05-31T14:30:00+3:00"
+        };
+
+        for (String text : invalid) {
+            try {
+                Iso8601.parse(text);
+                fail("Parsed invalid time: " + text);
+            } catch (ParseException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void format_matchesSimpleDateFormat() throws ParseException {
+        Random random = new Random(7);
+        String[] zones = {"UTC", "Europe/Moscow", "America/New_York", "Asia/Kolkata", "Pacific/Chatham"};
+
+        for (int i = 0; i < 10000; i++) {
+            long millis = (long) (random.nextDouble() * 4_000_000_000_000L);
+            TimeZone timeZone = TimeZone.getTimeZone(zones[i % zones.length]);
+
+            SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSXXX");
+            expected.setTimeZone(timeZone);
+
+            String formatted = Iso8601.format(millis, timeZone.getOffset(millis));
+            assertEquals(expected.format(new Date(millis)), formatted);
+            assertEquals(millis, Iso8601.parse(formatted));
+        }
+    }
+}
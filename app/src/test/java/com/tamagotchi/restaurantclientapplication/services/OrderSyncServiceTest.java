@@ -0,0 +1,175 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import com.google.gson.Gson;
+import com.tamagotchi.restaurantclientapplication.data.model.OrdersUpdate;
+import com.tamagotchi.tamagotchiserverprotocol.models.OrderModel;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OrderSyncServiceTest {
+
+    private static final int USER_ID = 3;
+
+    private final Gson gson = new Gson();
+
+    private final TestScheduler scheduler = new TestScheduler();
+
+    /**
+     * Источник заказов, который отвечает заданными списками по очереди, последний список повторяется.
+     */
+    private class FakeOrdersSource implements OrderSyncService.OrdersSource {
+        private final List<List<OrderModel>> responses;
+        private final List<Long> requestTimes = new ArrayList<>();
+        private List<OrderModel> saved = null;
+
+        @SafeVarargs
+        FakeOrdersSource(List<OrderModel>... responses) {
+            this.responses = Arrays.asList(responses);
+        }
+
+        @Override
+        public Single<List<OrderModel>> getUserOrders(int userId) {
+            return Single.fromCallable(() -> {
+                requestTimes.add(scheduler.now(TimeUnit.SECONDS));
+                return responses.get(Math.min(requestTimes.size(), responses.size()) - 1);
+            });
+        }
+
+        @Override
+        public Single<List<OrderModel>> getStoredOrders(int userId) {
+            return Single.just(new ArrayList<>());
+        }
+
+        @Override
+        public Completable saveOrders(int userId, List<OrderModel> orders) {
+            return Completable.fromAction(() -> saved = orders);
+        }
+    }
+
+    private OrderModel order(int id, String status) {
+        return gson.fromJson("{\"id\":" + id + ",\"orderStatus\":\"" + status + "\"}", OrderModel.class);
+    }
+
+    private TestObserver<OrdersUpdate> sync(FakeOrdersSource source) {
+        TestObserver<OrdersUpdate> observer = new OrderSyncService(source, scheduler).sync(USER_ID).test();
+        scheduler.triggerActions();
+        return observer;
+    }
+
+    @Test
+    public void sync_reportsOnlyChangedIds() {
+        FakeOrdersSource source = new FakeOrdersSource(
+                Arrays.asList(order(1, "Preparing"), order(2, "Confirmed")),
+                Arrays.asList(order(1, "Prepared"), order(2, "Confirmed")));
+
+        TestObserver<OrdersUpdate> observer = sync(source);
+        observer.assertValueCount(1);
+        assertTrue(observer.values().get(0).isStructureChanged());
+
+        scheduler.advanceTimeBy(15, TimeUnit.SECONDS);
+
+        observer.assertValueCount(2);
+        OrdersUpdate update = observer.values().get(1);
+        assertFalse(update.isStructureChanged());
+        assertEquals(Collections.singleton(1), update.getChangedIds());
+        assertEquals(2, update.getOrders().size());
+        assertEquals(update.getOrders(), source.saved);
+    }
+
+    @Test
+    public void sync_reorder_changesStructure() {
+        FakeOrdersSource source = new FakeOrdersSource(
+                Arrays.asList(order(1, "Preparing"), order(2, "Confirmed")),
+                Arrays.asList(order(2, "Confirmed"), order(1, "Preparing")));
+
+        TestObserver<OrdersUpdate> observer = sync(source);
+        scheduler.advanceTimeBy(15, TimeUnit.SECONDS);
+
+        observer.assertValueCount(2);
+        assertTrue(observer.values().get(1).isStructureChanged());
+        assertTrue(observer.values().get(1).getChangedIds().isEmpty());
+    }
+
+    @Test
+    public void sync_removal_changesStructure() {
+        FakeOrdersSource source = new FakeOrdersSource(
+                Arrays.asList(order(1, "Preparing"), order(2, "Confirmed")),
+                Collections.singletonList(order(1, "Preparing")));
+
+        TestObserver<OrdersUpdate> observer = sync(source);
+        scheduler.advanceTimeBy(15, TimeUnit.SECONDS);
+
+        observer.assertValueCount(2);
+        assertTrue(observer.values().get(1).isStructureChanged());
+        assertEquals(1, observer.values().get(1).getOrders().size());
+    }
+
+    @Test
+    public void sync_unchangedPoll_emitsNothing() {
+        FakeOrdersSource source = new FakeOrdersSource(Collections.singletonList(order(1, "Preparing")));
+
+        TestObserver<OrdersUpdate> observer = sync(source);
+        scheduler.advanceTimeBy(15 + 30, TimeUnit.SECONDS);
+
+        assertEquals(3, source.requestTimes.size());
+        observer.assertValueCount(1);
+        observer.assertNotComplete();
+    }
+
+    @Test
+    public void sync_unchangedPolls_backOffUpToMaxInterval() {
+        FakeOrdersSource source = new FakeOrdersSource(Collections.singletonList(order(1, "Preparing")));
+
+        sync(source);
+        scheduler.advanceTimeBy(10, TimeUnit.MINUTES);
+
+        // Первый опрос сразу, затем 15, 30, 60 и далее по 120 секунд.
+        assertEquals(Arrays.asList(0L, 15L, 45L, 105L, 225L, 345L, 465L, 585L), source.requestTimes);
+    }
+
+    @Test
+    public void sync_change_resetsInterval() {
+        FakeOrdersSource source = new FakeOrdersSource(
+                Collections.singletonList(order(1, "Confirmed")),
+                Collections.singletonList(order(1, "Confirmed")),
+                Collections.singletonList(order(1, "Confirmed")),
+                Collections.singletonList(order(1, "Preparing")));
+
+        sync(source);
+        scheduler.advanceTimeBy(15 + 30 + 60 + 15, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList(0L, 15L, 45L, 105L, 120L), source.requestTimes);
+    }
+
+    @Test
+    public void sync_noActiveOrders_stopsPolling() {
+        FakeOrdersSource source = new FakeOrdersSource(
+                Collections.singletonList(order(1, "Prepared")),
+                Collections.singletonList(order(1, "Completed")));
+
+        TestObserver<OrdersUpdate> observer = sync(source);
+        observer.assertNotComplete();
+
+        scheduler.advanceTimeBy(15, TimeUnit.SECONDS);
+        observer.assertComplete();
+        observer.assertValueCount(2);
+
+        scheduler.advanceTimeBy(10, TimeUnit.MINUTES);
+        assertEquals(2, source.requestTimes.size());
+    }
+}
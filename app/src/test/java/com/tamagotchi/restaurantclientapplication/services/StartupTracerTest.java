@@ -0,0 +1,104 @@
+package com.tamagotchi.restaurantclientapplication.services;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StartupTracerTest {
+
+    private static List<String[]> dump() throws IOException {
+        StringBuilder out = new StringBuilder();
+        StartupTracer.writeTo(out, "test");
+
+        String[] lines = out.toString().split("\n");
+        assertTrue(lines[0].startsWith("#startup-trace\tversion=" + StartupTracer.FORMAT_VERSION));
+        assertEquals("kind\tname\tthread\tstart_us\tduration_us", lines[1]);
+
+        List<String[]> rows = new ArrayList<>();
+        for (int i = 2; i < lines.length; i++) {
+            rows.add(lines[i].split("\t", -1));
+        }
+        return rows;
+    }
+
+    @Test
+    public void spansAndMarks() throws IOException {
+        StartupTracer.startLaunch("cold");
+        StartupTracer.begin("outer");
+        StartupTracer.begin("inner");
+        StartupTracer.mark("point");
+        StartupTracer.end("inner");
+        StartupTracer.end("outer");
+        StartupTracer.begin("unclosed");
+
+        List<String[]> rows = dump();
+        assertEquals(4, rows.size());
+
+        assertEquals("span", rows.get(0)[0]);
+        assertEquals("outer", rows.get(0)[1]);
+        assertEquals(Thread.currentThread().getName(), rows.get(0)[2]);
+        assertEquals("inner", rows.get(1)[1]);
+        assertEquals("mark", rows.get(2)[0]);
+        assertEquals("", rows.get(2)[4]);
+        assertEquals("-1", rows.get(3)[4]);
+
+        long outerStart = Long.parseLong(rows.get(0)[3]);
+        long outerDuration = Long.parseLong(rows.get(0)[4]);
+        long innerStart = Long.parseLong(rows.get(1)[3]);
+        long innerDuration = Long.parseLong(rows.get(1)[4]);
+        assertTrue(outerStart <= innerStart);
+        assertTrue(innerStart + innerDuration <= outerStart + outerDuration);
+    }
+
+    @Test
+    public void sameNameSpansPairWithLatestBegin() throws IOException {
+        StartupTracer.startLaunch("cold");
+        StartupTracer.begin("fetch");
+        StartupTracer.begin("fetch");
+        StartupTracer.end("fetch");
+
+        List<String[]> rows = dump();
+        assertEquals("-1", rows.get(0)[4]);
+        assertFalse("-1".equals(rows.get(1)[4]));
+    }
+
+    @Test
+    public void overflowKeepsLatestEvents() throws IOException {
+        StartupTracer.startLaunch("warm");
+        for (int i = 0; i < StartupTracer.CAPACITY + 10; i++) {
+            StartupTracer.mark(i < 10 ? "old" : "new");
+        }
+
+        StringBuilder out = new StringBuilder();
+        StartupTracer.writeTo(out, "test");
+        assertTrue(out.toString().startsWith("#startup-trace\tversion=1\tlaunch=warm\tbuild=test\tdropped=10\n"));
+
+        List<String[]> rows = dump();
+        assertEquals(StartupTracer.CAPACITY, rows.size());
+        for (String[] row : rows) {
+            assertEquals("new", row[1]);
+        }
+    }
+
+    @Test
+    public void finishStopsRecording() throws IOException {
+        StartupTracer.startLaunch("cold");
+        StartupTracer.mark("before");
+
+        assertTrue(StartupTracer.finish());
+        assertFalse(StartupTracer.finish());
+        assertFalse(StartupTracer.isActive());
+
+        StartupTracer.mark("after");
+
+        List<String[]> rows = dump();
+        assertEquals(1, rows.size());
+        assertEquals("before", rows.get(0)[1]);
+    }
+}
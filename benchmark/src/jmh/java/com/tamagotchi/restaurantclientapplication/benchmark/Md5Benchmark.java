@@ -0,0 +1,59 @@
+package com.tamagotchi.restaurantclientapplication.benchmark;
+
+import com.tamagotchi.restaurantclientapplication.services.HashService;
+import com.tamagotchi.restaurantclientapplication.services.Md5Service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Хэширование пароля при входе и регистрации и хэширование больших данных потоком.
+ */
+@State(Scope.Thread)
+public class Md5Benchmark {
+
+    @Param({"8", "64"})
+    public int length;
+
+    private String password;
+
+    /**
+     * Данные для потокового хэширования (1 МБ), не зависят от length.
+     */
+    @State(Scope.Benchmark)
+    public static class StreamData {
+        private byte[] data;
+
+        @Setup
+        public void setUp() {
+            data = new byte[1024 * 1024];
+            new Random(42).nextBytes(data);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        password = builder.toString();
+    }
+
+    @Benchmark
+    public String md5Custom() {
+        return Md5Service.md5Custom(password);
+    }
+
+    @Benchmark
+    public String md5Stream(StreamData streamData) throws IOException {
+        return HashService.md5Hex(new ByteArrayInputStream(streamData.data));
+    }
+}
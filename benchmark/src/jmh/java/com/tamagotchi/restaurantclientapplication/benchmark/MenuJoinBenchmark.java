@@ -0,0 +1,102 @@
+package com.tamagotchi.restaurantclientapplication.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.restaurantclientapplication.services.MenuAssembler;
+import com.tamagotchi.tamagotchiserverprotocol.models.DishModel;
+import com.tamagotchi.tamagotchiserverprotocol.models.MenuItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.rxjava3.core.Single;
+
+/**
+ * Сборка меню ресторана, как в MainViewModel.InitRestaurantMenu.
+ * Репозитории заменены заглушками, которые сразу возвращают данные,
+ * поэтому измеряется только обработка, без сети и переключения потоков.
+ */
+@State(Scope.Thread)
+public class MenuJoinBenchmark {
+
+    /**
+     * Количество элементов меню ресторана.
+     */
+    @Param({"30", "300"})
+    public int menuSize;
+
+    /**
+     * Количество разных блюд (одно блюдо может быть в меню несколько раз).
+     */
+    @Param({"20"})
+    public int dishCount;
+
+    private List<MenuItem> menu;
+    private Map<Integer, DishModel> dishes;
+
+    @Setup
+    public void setUp() {
+        // Модели библиотеки создаются так же, как при получении ответа сервера.
+        Gson gson = new Gson();
+
+        JsonArray menuJson = new JsonArray();
+        for (int i = 0; i < menuSize; i++) {
+            JsonObject menuItem = new JsonObject();
+            menuItem.addProperty("id", i + 1);
+            menuItem.addProperty("dishId", i % dishCount + 1);
+            menuItem.addProperty("price", 100 + i);
+            menuItem.addProperty("isDeleted", false);
+            menuJson.add(menuItem);
+        }
+        menu = gson.fromJson(menuJson, new TypeToken<List<MenuItem>>() {
+        }.getType());
+
+        dishes = new HashMap<>();
+        for (int i = 0; i < dishCount; i++) {
+            JsonObject dish = new JsonObject();
+            dish.addProperty("id", i + 1);
+            dish.addProperty("name", "Dish " + (i + 1));
+            dish.addProperty("description", "");
+            dishes.put(i + 1, gson.fromJson(dish, DishModel.class));
+        }
+
+        if (join().size() != menuSize) {
+            throw new IllegalStateException("Menu items are not joined with dishes, check model field names");
+        }
+    }
+
+    private Single<List<MenuItem>> getMenu() {
+        return Single.just(menu);
+    }
+
+    private Single<Map<Integer, DishModel>> getDishesByIds(Collection<Integer> ids) {
+        return Single.just(dishes);
+    }
+
+    @Benchmark
+    public List<FullMenuItem> join() {
+        return getMenu()
+                .flatMap(menu -> getDishesByIds(MenuAssembler.collectDishIds(menu))
+                        .map(dishes -> MenuAssembler.assemble(menu, dishes)))
+                .blockingGet();
+    }
+
+    /**
+     * Только сборка, без RxJava.
+     */
+    @Benchmark
+    public List<FullMenuItem> assemble() {
+        return MenuAssembler.assemble(menu, dishes);
+    }
+}
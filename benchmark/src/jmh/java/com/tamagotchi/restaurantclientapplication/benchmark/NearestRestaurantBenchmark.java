@@ -0,0 +1,84 @@
+package com.tamagotchi.restaurantclientapplication.benchmark;
+
+import com.tamagotchi.restaurantclientapplication.services.GeoIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Поиск ближайшего ресторана (кнопка на карте RestaurantsFragment).
+ * linearScan - прежний перебор всех ресторанов, для сравнения.
+ */
+@State(Scope.Thread)
+public class NearestRestaurantBenchmark {
+
+    private static class Restaurant {
+        final double latitude;
+        final double longitude;
+
+        Restaurant(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    @Param({"50", "1000"})
+    public int count;
+
+    private List<Restaurant> restaurants;
+    private GeoIndex<Restaurant> index;
+    private double userLatitude;
+    private double userLongitude;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        // Рестораны в пределах города, как в реальных данных.
+        restaurants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            restaurants.add(new Restaurant(55.5 + random.nextDouble() * 0.5, 37.3 + random.nextDouble() * 0.6));
+        }
+
+        index = new GeoIndex<>(restaurants, restaurant -> restaurant.latitude, restaurant -> restaurant.longitude);
+        userLatitude = 55.75;
+        userLongitude = 37.62;
+    }
+
+    /**
+     * Построение индекса при получении списка ресторанов.
+     */
+    @Benchmark
+    public GeoIndex<Restaurant> buildIndex() {
+        return new GeoIndex<>(restaurants, restaurant -> restaurant.latitude, restaurant -> restaurant.longitude);
+    }
+
+    @Benchmark
+    public Restaurant nearest() {
+        return index.nearest(userLatitude, userLongitude);
+    }
+
+    @Benchmark
+    public Restaurant linearScan() {
+        Restaurant nearest = restaurants.get(0);
+        double distance = GeoIndex.distanceMeters(userLatitude, userLongitude, nearest.latitude, nearest.longitude);
+
+        for (int i = 1; i < restaurants.size(); i++) {
+            Restaurant restaurant = restaurants.get(i);
+            double tmpDistance = GeoIndex.distanceMeters(userLatitude, userLongitude, restaurant.latitude, restaurant.longitude);
+            if (tmpDistance < distance) {
+                distance = tmpDistance;
+                nearest = restaurant;
+            }
+        }
+
+        return nearest;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tamagotchi.restaurantclientapplication.benchmark;
+
+import com.tamagotchi.restaurantclientapplication.services.Iso8601;
+import com.tamagotchi.restaurantclientapplication.services.RfcToCalendarConverter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.ParseException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+
+/**
+ * Разбор времени заказов (выполняется для каждой строки истории заказов).
+ * offsetDateTime - прежний способ разбора на API 26+, для сравнения.
+ */
+@State(Scope.Thread)
+public class TimeParsingBenchmark {
+
+    @Param({"2020-06-01T18:30:00+03:00", "2020-06-01T15:30:00.125Z"})
+    public String time;
+
+    @Benchmark
+    public Calendar rfcToCalendar() throws ParseException {
+        return RfcToCalendarConverter.convert(time);
+    }
+
+    @Benchmark
+    public long iso8601Parse() throws ParseException {
+        return Iso8601.parse(time);
+    }
+
+    @Benchmark
+    public long offsetDateTime() {
+        return OffsetDateTime.parse(time, DateTimeFormatter.ISO_DATE_TIME).toInstant().toEpochMilli();
+    }
+
+    @Benchmark
+    public String iso8601Format() {
+        return Iso8601.format(1591025400000L, 3 * 60 * 60 * 1000);
+    }
+}
@@ -0,0 +1,95 @@
+package com.tamagotchi.restaurantclientapplication.benchmark;
+
+import com.tamagotchi.restaurantclientapplication.data.model.FullMenuItem;
+import com.tamagotchi.restaurantclientapplication.data.model.UserCart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Корзина пользователя: изменение количества на экране меню
+ * и агрегация на экране заказа (бывшие OrdersFragment.getMapMenu и getPayment).
+ */
+@State(Scope.Thread)
+public class UserCartBenchmark {
+
+    /**
+     * Количество разных позиций в корзине.
+     */
+    @Param({"5", "50"})
+    public int lines;
+
+    /**
+     * Количество экземпляров каждой позиции.
+     */
+    @Param({"3"})
+    public int quantity;
+
+    private List<FullMenuItem> menuItems;
+    private UserCart cart;
+    private UserCart.Snapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        menuItems = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            menuItems.add(new FullMenuItem(i + 1, 100 + i * 10, false, null));
+        }
+
+        cart = new UserCart();
+        for (FullMenuItem menuItem : menuItems) {
+            for (int i = 0; i < quantity; i++) {
+                cart.add(menuItem);
+            }
+        }
+        snapshot = cart.snapshot();
+    }
+
+    /**
+     * Нажатие "+" и "-" на экране меню: изменение корзины без создания снимка.
+     */
+    @Benchmark
+    public boolean addRemove() {
+        FullMenuItem menuItem = menuItems.get(lines / 2);
+        cart.add(menuItem);
+        return cart.remove(menuItem);
+    }
+
+    /**
+     * Открытие экрана заказа после изменения корзины: снимок создается заново.
+     */
+    @Benchmark
+    public UserCart.Snapshot addRemoveSnapshot() {
+        FullMenuItem menuItem = menuItems.get(lines / 2);
+        cart.add(menuItem);
+        cart.remove(menuItem);
+        return cart.snapshot();
+    }
+
+    /**
+     * Строки корзины для списка на экране заказа.
+     */
+    @Benchmark
+    public List<UserCart.Line> lines() {
+        return snapshot.getLines();
+    }
+
+    @Benchmark
+    public int totalPrice() {
+        return snapshot.getTotalPrice();
+    }
+
+    /**
+     * Id элементов меню для создания заказа.
+     */
+    @Benchmark
+    public List<Integer> menuItemIds() {
+        return snapshot.getMenuItemIds();
+    }
+}